@@ -0,0 +1,75 @@
+package com.javaguides.springboot.benchmark;
+
+import com.javaguides.springboot.resolution.ColumnarPriceStore;
+import com.javaguides.springboot.resolution.PriceEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la búsqueda sin asignaciones de ColumnarPriceStore.find() sobre catálogos generados.
+ *
+ * Las fechas se precalculan en segundos epoch, de modo que con "-prof gc" la tasa de asignación de find debe ser 0.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g", "-XX:MaxDirectMemorySize=4g"})
+@State(Scope.Benchmark)
+public class ColumnarStoreBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int catalogSize;
+
+    @Param({"1", "4", "16"})
+    public int overlapDepth;
+
+    private ColumnarPriceStore store;
+
+    private final long[] epochSeconds = new long[QUERIES];
+    private final long[] productIds = new long[QUERIES];
+    private final long[] brandIds = new long[QUERIES];
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        store = ColumnarPriceStore.of(PriceCatalogGenerator.catalog(catalogSize, overlapDepth, 42).stream()
+                .map(PriceEntry::of)
+                .toList());
+
+        SplittableRandom random = new SplittableRandom(7);
+        int keys = PriceCatalogGenerator.keys(catalogSize, overlapDepth);
+        for (int i = 0; i < QUERIES; i++) {
+            int key = random.nextInt(keys);
+            LocalDateTime date = PriceCatalogGenerator.randomInstant(random);
+            epochSeconds[i] = date.toEpochSecond(ZoneOffset.UTC);
+            productIds[i] = PriceCatalogGenerator.productId(key);
+            brandIds[i] = PriceCatalogGenerator.brandId(key);
+        }
+    }
+
+    @Benchmark
+    public long find() {
+        int i = next++ & (QUERIES - 1);
+        int row = store.find(epochSeconds[i], 0, productIds[i], brandIds[i]);
+        return row < 0 ? -1 : store.priceMinor(row);
+    }
+}
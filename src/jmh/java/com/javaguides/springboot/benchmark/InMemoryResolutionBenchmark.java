@@ -0,0 +1,83 @@
+package com.javaguides.springboot.benchmark;
+
+import com.javaguides.springboot.resolution.ColumnarPriceEngine;
+import com.javaguides.springboot.resolution.IntervalTreePriceEngine;
+import com.javaguides.springboot.resolution.PriceEntry;
+import com.javaguides.springboot.resolution.PriceResolutionEngine;
+import com.javaguides.springboot.resolution.TimelinePriceEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de las estrategias de resolución en memoria (PriceResolutionEngine) sobre catálogos generados.
+ *
+ * Mide consultas puntuales (fecha, producto, marca) aleatorias contra el motor ya cargado.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Benchmark)
+public class InMemoryResolutionBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int catalogSize;
+
+    @Param({"1", "4", "16"})
+    public int overlapDepth;
+
+    @Param({IntervalTreePriceEngine.NAME, TimelinePriceEngine.NAME, ColumnarPriceEngine.NAME})
+    public String engine;
+
+    private PriceResolutionEngine priceEngine;
+
+    private final LocalDateTime[] dates = new LocalDateTime[QUERIES];
+    private final long[] productIds = new long[QUERIES];
+    private final long[] brandIds = new long[QUERIES];
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        priceEngine = switch (engine) {
+            case IntervalTreePriceEngine.NAME -> new IntervalTreePriceEngine();
+            case TimelinePriceEngine.NAME -> new TimelinePriceEngine();
+            case ColumnarPriceEngine.NAME -> new ColumnarPriceEngine();
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+        priceEngine.load(PriceCatalogGenerator.catalog(catalogSize, overlapDepth, 42));
+
+        SplittableRandom random = new SplittableRandom(7);
+        int keys = PriceCatalogGenerator.keys(catalogSize, overlapDepth);
+        for (int i = 0; i < QUERIES; i++) {
+            int key = random.nextInt(keys);
+            dates[i] = PriceCatalogGenerator.randomInstant(random);
+            productIds[i] = PriceCatalogGenerator.productId(key);
+            brandIds[i] = PriceCatalogGenerator.brandId(key);
+        }
+    }
+
+    @Benchmark
+    public Optional<PriceEntry> resolve() {
+        int i = next++ & (QUERIES - 1);
+        return priceEngine.resolve(dates[i], productIds[i], brandIds[i]);
+    }
+}
@@ -0,0 +1,140 @@
+package com.javaguides.springboot.benchmark;
+
+import com.javaguides.springboot.SpringBootTestingApplication;
+import com.javaguides.springboot.dto.PriceImportFormat;
+import com.javaguides.springboot.dto.PriceImportReportDto;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.repository.PriceRepository;
+import com.javaguides.springboot.service.PriceBrandService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la carga masiva de precios: filas insertadas por segundo con PriceRepository.saveAll (Hibernate) y con
+ * la importación CSV de PriceBrandService (lotes JDBC).
+ *
+ * Con jdbcBatchSize=1 Hibernate envía un INSERT por precio, como ocurría con los identificadores IDENTITY; con 50 agrupa
+ * las inserciones en lotes JDBC gracias a los identificadores de secuencia. La tabla se vacía en cada iteración.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private PriceRepository priceRepository;
+
+    private PriceBrandService priceBrandService;
+
+    private TransactionTemplate transactionTemplate;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private List<PRICES> rows;
+
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:insert-bench;DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "prices.resolution.engine=database",
+                        "prices.cache.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        priceRepository = context.getBean(PriceRepository.class);
+        priceBrandService = context.getBean(PriceBrandService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int brand = 1; brand <= PriceCatalogGenerator.BRANDS; brand++) {
+            jdbcTemplate.update("INSERT INTO brand (id, name, description) VALUES (?, ?, ?)", brand, "Brand " + brand, "Brand " + brand);
+        }
+        jdbcTemplate.update("INSERT INTO catalog_version (id, version) VALUES (1, 1)");
+
+        rows = new ArrayList<>(PriceCatalogGenerator.catalog(ROWS, 4, 42));
+        StringBuilder builder = new StringBuilder();
+        for (PRICES price : rows) {
+            builder.append(price.getBrand().getId()).append(',')
+                    .append(price.getStartDate()).append(',')
+                    .append(price.getEndDate()).append(',')
+                    .append(price.getPriceList()).append(',')
+                    .append(price.getProductId()).append(',')
+                    .append(price.getPriority()).append(',')
+                    .append(price.getPrice()).append(',')
+                    .append(price.getCurr()).append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE price_changes");
+        jdbcTemplate.execute("TRUNCATE TABLE prices");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<PRICES> saveAll() {
+        List<PRICES> prices = new ArrayList<>(ROWS);
+        for (PRICES row : rows) {
+            prices.add(PRICES.builder()
+                    .brand(row.getBrand())
+                    .startDate(row.getStartDate())
+                    .endDate(row.getEndDate())
+                    .priceList(row.getPriceList())
+                    .productId(row.getProductId())
+                    .priority(row.getPriority())
+                    .price(row.getPrice())
+                    .curr(row.getCurr())
+                    .build());
+        }
+        return transactionTemplate.execute(status -> priceRepository.saveAll(prices));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PriceImportReportDto importCsv() {
+        return priceBrandService.importPrices(new ByteArrayInputStream(csv), PriceImportFormat.CSV);
+    }
+}
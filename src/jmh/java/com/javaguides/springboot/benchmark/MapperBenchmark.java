@@ -0,0 +1,71 @@
+package com.javaguides.springboot.benchmark;
+
+import com.javaguides.springboot.dto.PricesDto;
+import com.javaguides.springboot.dto.PricesExamDto;
+import com.javaguides.springboot.mapper.PricesExamMapper;
+import com.javaguides.springboot.mapper.PricesMapper;
+import com.javaguides.springboot.model.PRICES;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del mapeo de entidades PRICES a los DTO de respuesta (PricesExamMapper y PricesMapper).
+ *
+ * Las filas se eligen al azar dentro del catálogo, así que los catálogos grandes reflejan también el coste de
+ * leer entidades que no están en la caché del procesador.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int catalogSize;
+
+    @Param({"1", "4", "16"})
+    public int overlapDepth;
+
+    private PRICES[] catalog;
+
+    private final int[] rows = new int[QUERIES];
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        catalog = PriceCatalogGenerator.catalog(catalogSize, overlapDepth, 42).toArray(PRICES[]::new);
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < QUERIES; i++) {
+            rows[i] = random.nextInt(catalog.length);
+        }
+    }
+
+    @Benchmark
+    public PricesExamDto mapToPricesExamDto() {
+        return PricesExamMapper.mapToPricesExamDto(catalog[rows[next++ & (QUERIES - 1)]]);
+    }
+
+    @Benchmark
+    public PricesDto mapToPricesDto() {
+        return PricesMapper.mapToPricesDto(catalog[rows[next++ & (QUERIES - 1)]]);
+    }
+}
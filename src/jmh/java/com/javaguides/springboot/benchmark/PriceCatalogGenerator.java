@@ -0,0 +1,118 @@
+package com.javaguides.springboot.benchmark;
+
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Generador determinista de catálogos de precios para los benchmarks.
+ *
+ * Cada clave (brandId, productId) tiene "overlapDepth" filas: una tarifa base de prioridad 0 que cubre todo el año
+ * y overlapDepth - 1 promociones de entre 1 y 30 días con prioridad creciente, repartidas al azar dentro del año,
+ * de modo que una consulta encuentra de media más candidatos solapados cuanto mayor es la profundidad.
+ */
+public final class PriceCatalogGenerator {
+
+    public static final LocalDateTime YEAR_START = LocalDateTime.of(2020, 1, 1, 0, 0, 0);
+
+    public static final int BRANDS = 10;
+
+    private static final long YEAR_SECONDS = 366L * 24 * 3600;
+
+    private PriceCatalogGenerator() {
+    }
+
+    /**
+     * Número de claves (brandId, productId) que tiene un catálogo.
+     */
+    public static int keys(int rows, int overlapDepth) {
+        return Math.max(1, rows / overlapDepth);
+    }
+
+    /**
+     * brandId de la clave i-ésima.
+     */
+    public static long brandId(int key) {
+        return key % BRANDS + 1;
+    }
+
+    /**
+     * productId de la clave i-ésima.
+     */
+    public static long productId(int key) {
+        return key / BRANDS + 1;
+    }
+
+    /**
+     * Instante aleatorio del año del catálogo, para las consultas.
+     */
+    public static LocalDateTime randomInstant(SplittableRandom random) {
+        return YEAR_START.plusSeconds(random.nextLong(YEAR_SECONDS));
+    }
+
+    /**
+     * Devuelve el catálogo como una colección que genera las filas al recorrerla, sin tenerlas todas en memoria.
+     * Cada recorrido produce exactamente las mismas filas, con priceId consecutivos desde 1.
+     */
+    public static AbstractCollection<PRICES> catalog(int rows, int overlapDepth, long seed) {
+        int keys = keys(rows, overlapDepth);
+        int size = keys * overlapDepth;
+        BRAND[] brands = new BRAND[BRANDS];
+        for (int i = 0; i < BRANDS; i++) {
+            brands[i] = BRAND.builder().id(i + 1).name("Brand " + (i + 1)).description("Brand " + (i + 1)).build();
+        }
+
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<PRICES> iterator() {
+                return new Iterator<>() {
+                    private final SplittableRandom random = new SplittableRandom(seed);
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public PRICES next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int key = next / overlapDepth;
+                        int level = next % overlapDepth;
+                        next++;
+
+                        LocalDateTime start = YEAR_START;
+                        LocalDateTime end = YEAR_START.plusSeconds(YEAR_SECONDS - 1);
+                        if (level > 0) {
+                            start = YEAR_START.plusSeconds(random.nextLong(YEAR_SECONDS));
+                            end = start.plusDays(1 + random.nextInt(30));
+                        }
+                        return PRICES.builder()
+                                .priceId(next)
+                                .brand(brands[(int) brandId(key) - 1])
+                                .startDate(start)
+                                .endDate(end)
+                                .priceList(level + 1)
+                                .productId(productId(key))
+                                .priority(level)
+                                .price(10 + random.nextInt(9000) / 100d)
+                                .curr("EUR")
+                                .build();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
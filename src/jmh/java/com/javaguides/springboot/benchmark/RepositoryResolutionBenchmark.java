@@ -0,0 +1,131 @@
+package com.javaguides.springboot.benchmark;
+
+import com.javaguides.springboot.SpringBootTestingApplication;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.service.PriceBrandService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la resolución actual: consulta PriceRepository.findByDateRequestIdProductIdBrand contra H2 y
+ * selección de la mayor prioridad recorriendo la lista en PriceBrandServiceImpl.
+ *
+ * Arranca la aplicación sin servidor web, sin data.sql y sin la caché de precios resueltos (para medir la consulta y no
+ * los aciertos de la caché), e inserta el catálogo generado con lotes JDBC.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+@State(Scope.Benchmark)
+public class RepositoryResolutionBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int catalogSize;
+
+    @Param({"1", "4", "16"})
+    public int overlapDepth;
+
+    private ConfigurableApplicationContext context;
+
+    private PriceBrandService priceBrandService;
+
+    private final LocalDateTime[] dates = new LocalDateTime[QUERIES];
+    private final long[] productIds = new long[QUERIES];
+    private final long[] brandIds = new long[QUERIES];
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "prices.resolution.engine=database",
+                        "prices.cache.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        priceBrandService = context.getBean(PriceBrandService.class);
+        insertCatalog(context.getBean(JdbcTemplate.class));
+
+        SplittableRandom random = new SplittableRandom(7);
+        int keys = PriceCatalogGenerator.keys(catalogSize, overlapDepth);
+        for (int i = 0; i < QUERIES; i++) {
+            int key = random.nextInt(keys);
+            dates[i] = PriceCatalogGenerator.randomInstant(random);
+            productIds[i] = PriceCatalogGenerator.productId(key);
+            brandIds[i] = PriceCatalogGenerator.brandId(key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PRICES findByDateRequestIdProductIdBrand() {
+        int i = next++ & (QUERIES - 1);
+        return priceBrandService.findByDateRequestIdProductIdBrand(dates[i], productIds[i], brandIds[i]);
+    }
+
+    private void insertCatalog(JdbcTemplate jdbcTemplate) {
+        for (int brand = 1; brand <= PriceCatalogGenerator.BRANDS; brand++) {
+            jdbcTemplate.update("INSERT INTO brand (id, name, description) VALUES (?, ?, ?)", brand, "Brand " + brand, "Brand " + brand);
+        }
+
+        List<PRICES> batch = new ArrayList<>(INSERT_BATCH);
+        for (PRICES price : PriceCatalogGenerator.catalog(catalogSize, overlapDepth, 42)) {
+            batch.add(price);
+            if (batch.size() == INSERT_BATCH) {
+                insertBatch(jdbcTemplate, batch);
+            }
+        }
+        insertBatch(jdbcTemplate, batch);
+    }
+
+    private void insertBatch(JdbcTemplate jdbcTemplate, List<PRICES> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO prices (price_id, brand_id, start_date, end_date, price_list, product_id, priority, price, curr) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch, batch.size(), (ps, price) -> {
+            ps.setLong(1, price.getPriceId());
+            ps.setLong(2, price.getBrand().getId());
+            ps.setTimestamp(3, Timestamp.valueOf(price.getStartDate()));
+            ps.setTimestamp(4, Timestamp.valueOf(price.getEndDate()));
+            ps.setInt(5, price.getPriceList());
+            ps.setLong(6, price.getProductId());
+            ps.setInt(7, price.getPriority());
+            ps.setDouble(8, price.getPrice());
+            ps.setString(9, price.getCurr());
+        });
+        batch.clear();
+    }
+}
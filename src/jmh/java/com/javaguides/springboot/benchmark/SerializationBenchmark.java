@@ -0,0 +1,82 @@
+package com.javaguides.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.javaguides.springboot.dto.PricesDto;
+import com.javaguides.springboot.mapper.PricesMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la serialización de un listado de PricesDto en JSON y en CBOR, como las respuestas de /api/prices/,
+ * /api/prices/fechaAppli/batch y /api/prices/export.
+ *
+ * Los ObjectMapper se configuran como los de Spring Boot (fechas ISO, no timestamps). El tamaño de la respuesta de
+ * cada formato se imprime al preparar el benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private ObjectMapper mapper;
+
+    private JavaType listType;
+
+    private List<PricesDto> prices;
+
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = switch (format) {
+            case "json" -> builder.build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, PricesDto.class);
+        prices = PriceCatalogGenerator.catalog(rows, 1, 42).stream().map(PricesMapper::mapToPricesDto).toList();
+        payload = mapper.writeValueAsBytes(prices);
+        System.out.printf("%n%s payload for %d prices: %d bytes (%d bytes/price)%n",
+                format, rows, payload.length, payload.length / rows);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(prices);
+    }
+
+    @Benchmark
+    public List<PricesDto> deserialize() throws IOException {
+        return mapper.readValue(payload, listType);
+    }
+}
@@ -0,0 +1,35 @@
+package com.javaguides.springboot.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Formato binario CBOR (application/cbor) para las respuestas REST, junto a JSON, según la cabecera Accept.
+ *
+ * Los double se escriben en binario en lugar de convertirse a texto, que es lo que más CPU cuesta en los listados
+ * grandes. El ObjectMapper CBOR se construye con el mismo Jackson2ObjectMapperBuilder de Spring Boot que el de JSON,
+ * de modo que los DTO tienen los mismos campos y las fechas el mismo formato ISO en los dos formatos.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    /**
+     * Secuencia de elementos CBOR concatenados (RFC 8742): el equivalente binario de NDJSON para las exportaciones.
+     */
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+
+    /**
+     * Convertidor CBOR de Spring MVC; sustituye al que Spring añade por defecto, que no usa la configuración de
+     * Jackson de Spring Boot.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,43 @@
+package com.javaguides.springboot.config;
+
+import com.javaguides.springboot.resolution.PriceCatalogSnapshot;
+import com.javaguides.springboot.resolution.SnapshotPriceEngine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Con el motor "snapshot", fija para cada petición la versión del catálogo vigente al recibirla y la devuelve en la
+ * cabecera X-Catalog-Version: todas las resoluciones de la petición usan esa versión, aunque entretanto se publiquen
+ * otras.
+ */
+@Component
+@ConditionalOnProperty(name = "prices.resolution.engine", havingValue = SnapshotPriceEngine.NAME)
+public class CatalogVersionFilter extends OncePerRequestFilter {
+
+    public static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+
+    private final SnapshotPriceEngine snapshotPriceEngine;
+
+    public CatalogVersionFilter(SnapshotPriceEngine snapshotPriceEngine) {
+        this.snapshotPriceEngine = snapshotPriceEngine;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        PriceCatalogSnapshot snapshot = snapshotPriceEngine.pin();
+        response.setHeader(CATALOG_VERSION_HEADER, Long.toString(snapshot.version()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            snapshotPriceEngine.unpin();
+        }
+    }
+}
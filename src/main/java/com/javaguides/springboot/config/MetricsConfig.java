@@ -0,0 +1,50 @@
+package com.javaguides.springboot.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de métricas (Micrometer) del servicio de precios.
+ *
+ * Los endpoints REST se miden con el temporizador http.server.requests de Spring Boot (con etiquetas de URI, estado
+ * y excepción), los métodos del servicio con @Timed y las consultas de los repositorios con
+ * spring.data.repository.invocations. Todo se publica en formato Prometheus en /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Temporizador de los métodos de PriceBrandService (etiquetas class, method y exception).
+     */
+    public static final String SERVICE_TIMER = "prices.service";
+
+    /**
+     * Histograma del número de precios candidatos (filas que se solapan con la fecha) leídos antes de elegir
+     * el de mayor prioridad.
+     */
+    public static final String CANDIDATES_SUMMARY = "prices.resolution.candidates";
+
+    /**
+     * Aspecto que hace efectivas las anotaciones @Timed de los beans de Spring.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Histograma de candidatos de una vía de resolución ("database", "batch", "cache"...).
+     */
+    public static DistributionSummary candidatesSummary(MeterRegistry meterRegistry, String source) {
+        return DistributionSummary.builder(CANDIDATES_SUMMARY)
+                .description("Overlapping price rows fetched before the priority pick")
+                .baseUnit("rows")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000.0)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.javaguides.springboot.config;
+
+import com.javaguides.springboot.resolution.PriceResolutionLoader;
+import com.javaguides.springboot.resolution.PriceResolutionLoader.WarmupStatus;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estado del calentamiento del servicio de precios ("priceWarmup" en /actuator/health), incluido en el grupo
+ * readiness: la instancia no recibe tráfico hasta que termina el calentamiento o hasta que el motor de resolución está
+ * listo con un snapshot proyectado, lo que ocurra antes; en ese caso el detalle "status" indica cómo va la carga desde
+ * la base de datos. Si el calentamiento falla se informa UP con el error, porque el servicio sigue pudiendo resolver
+ * contra la base de datos.
+ */
+@Component
+public class PriceWarmupHealthIndicator implements HealthIndicator {
+
+    private final PriceResolutionLoader priceResolutionLoader;
+
+    public PriceWarmupHealthIndicator(PriceResolutionLoader priceResolutionLoader) {
+        this.priceResolutionLoader = priceResolutionLoader;
+    }
+
+    @Override
+    public Health health() {
+        WarmupStatus status = priceResolutionLoader.status();
+        Health.Builder health = switch (status) {
+            case PENDING, RUNNING -> priceResolutionLoader.engineReady() ? Health.up() : Health.outOfService();
+            case COMPLETED -> Health.up();
+            case FAILED -> Health.up().withDetail("error", priceResolutionLoader.failure());
+        };
+        health.withDetail("status", status);
+        health.withDetail("engineReady", priceResolutionLoader.engineReady());
+        if (status == WarmupStatus.COMPLETED || status == WarmupStatus.FAILED) {
+            health.withDetail("durationMillis", priceResolutionLoader.durationMillis());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.javaguides.springboot.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Cuenta las sentencias SQL de cada petición HTTP con SqlStatementCounter y avisa en el log (WARN) de las peticiones
+ * que superan el presupuesto "prices.sql.request-budget". El número de sentencias se devuelve además en la cabecera
+ * X-SQL-Count (ver SqlCountResponseAdvice).
+ */
+@Component
+public class SqlCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlCountFilter.class);
+
+    private final int requestBudget;
+
+    public SqlCountFilter(@Value("${prices.sql.request-budget:10}") int requestBudget) {
+        this.requestBudget = requestBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            if (statements > requestBudget) {
+                log.warn("{} {} ran {} SQL statements (budget {})", request.getMethod(), request.getRequestURI(), statements, requestBudget);
+            } else {
+                log.debug("{} {} ran {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.javaguides.springboot.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Añade a las respuestas de los controladores REST la cabecera X-SQL-Count con las sentencias SQL ejecutadas hasta
+ * escribir el cuerpo. Se hace justo antes de escribirlo porque después la respuesta ya está enviada.
+ */
+@RestControllerAdvice
+public class SqlCountResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SQL_COUNT_HEADER = "X-SQL-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(SQL_COUNT_HEADER, Integer.toString(SqlStatementCounter.count()));
+        return body;
+    }
+}
@@ -0,0 +1,49 @@
+package com.javaguides.springboot.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Contador de sentencias SQL por hilo, registrado en Hibernate como StatementInspector
+ * (hibernate.session_factory.statement_inspector en application.properties).
+ *
+ * Cuenta cada sentencia que Hibernate prepara entre start() y stop() en el hilo actual: lo usan SqlCountFilter para
+ * medir cada petición HTTP y los tests para detectar consultas N+1. Las sentencias lanzadas con JdbcTemplate
+ * (importación masiva) no pasan por Hibernate y no se cuentan.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Empieza a contar (desde cero) las sentencias del hilo actual.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Sentencias contadas hasta ahora en el hilo actual, o 0 si no se está contando.
+     */
+    public static int count() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * Deja de contar en el hilo actual y devuelve las sentencias contadas.
+     */
+    public static int stop() {
+        int count = count();
+        COUNT.remove();
+        return count;
+    }
+}
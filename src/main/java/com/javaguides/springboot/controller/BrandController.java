@@ -0,0 +1,140 @@
+package com.javaguides.springboot.controller;
+
+import com.javaguides.springboot.dto.BrandDto;
+import com.javaguides.springboot.dto.BrandSummaryDto;
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.dto.PricesDto;
+import com.javaguides.springboot.exception.ResourceNotFoundException;
+import com.javaguides.springboot.mapper.BrandMapper;
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.service.PriceBrandService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/*
+ * Controlador BrandController.
+ *
+ * Expone las APIs REST de las marcas (cadenas): listar, obtener, crear, actualizar y borrar marcas, y consultar
+ * sus precios página a página. Las marcas se cargan sin sus precios; el número de precios de cada marca se calcula
+ * con una consulta agregada.
+ */
+@Tag(
+    name = "PriceBrand Service - BrandController",
+    description = "PriceBrand Service - Exposes REST APIs for brands"
+)
+@RestController
+@RequestMapping("/api/brands")
+public class BrandController {
+
+    @Autowired
+    private PriceBrandService priceBrandService;
+
+    /*
+     * Endpoint para obtener todas las marcas con su número de precios.
+     */
+    @Operation(summary = "Get all brands", description = "Fetch every brand with its number of prices")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping
+    public ResponseEntity<List<BrandSummaryDto>> getAllBrands() {
+        return ResponseEntity.ok(priceBrandService.getBrandSummaries());
+    }
+
+    /*
+     * Endpoint para obtener una marca por su ID, con su número de precios.
+     * Si no se encuentra la marca, lanza una excepción indicando que el recurso no existe.
+     */
+    @Operation(summary = "Get brand by ID", description = "Fetch a brand and its number of prices by its ID")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping("/{id}")
+    public ResponseEntity<BrandSummaryDto> getBrandById(@PathVariable("id") long id) {
+        BrandSummaryDto brand = priceBrandService.getBrandSummary(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Brand not found with ID: " + id));
+        return ResponseEntity.ok(brand);
+    }
+
+    /*
+     * Endpoint para obtener los precios de una marca página a página, ordenados por ID.
+     *
+     * Funciona igual que GET /api/prices/ filtrado por la marca: si hay más precios, la respuesta incluye la cabecera
+     * X-Next-Cursor (y un enlace Link rel="next") con el cursor de la página siguiente.
+     * Si el cursor o el tamaño de página no son válidos devuelve 400 (Bad Request).
+     */
+    @Operation(summary = "Get prices of a brand", description = "Fetch the prices of a brand page by page, ordered by ID")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping("/{id}/prices")
+    public ResponseEntity<List<PricesDto>> getBrandPrices(
+            @PathVariable("id") long id,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + PriceBrandController.DEFAULT_PAGE_SIZE) int size) {
+
+        Long afterPriceId = PriceBrandController.decodeCursor(cursor);
+        if (afterPriceId == null || size < 1 || size > PriceBrandController.MAX_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        priceBrandService.getBrandById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Brand not found with ID: " + id));
+
+        PriceFilterDto filter = PriceFilterDto.builder().brandId(id).build();
+        return PriceBrandController.toPageResponse(priceBrandService.getPrices(filter, afterPriceId, size));
+    }
+
+    /*
+     * Endpoint para crear una nueva marca. El ID lo asigna la base de datos.
+     */
+    @Operation(summary = "Create a new brand", description = "Create a new brand without prices")
+    @ApiResponse(responseCode = "201", description = "Created")
+    @PostMapping
+    public ResponseEntity<BrandDto> createBrand(@RequestBody BrandDto brandDto) {
+        BRAND brand = BrandMapper.mapToBrand(brandDto);
+        brand.setId(0);
+
+        BRAND savedBrand = priceBrandService.saveBrand(brand);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(BrandMapper.mapToBrandDto(savedBrand));
+    }
+
+    /*
+     * Endpoint para actualizar el nombre y la descripción de una marca existente por su ID.
+     * Si no se encuentra la marca, lanza una excepción indicando que el recurso no existe.
+     */
+    @Operation(summary = "Update an existing brand", description = "Update a brand by its ID")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PutMapping("/{id}")
+    public ResponseEntity<BrandDto> updateBrand(@PathVariable("id") long id, @RequestBody BrandDto brandDto) {
+        if (id != brandDto.getId()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        BRAND existingBrand = priceBrandService.getBrandById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Brand not found with ID: " + id));
+
+        existingBrand.setName(brandDto.getName());
+        existingBrand.setDescription(brandDto.getDescription());
+
+        BRAND updatedBrand = priceBrandService.updateBrand(existingBrand);
+        return ResponseEntity.ok(BrandMapper.mapToBrandDto(updatedBrand));
+    }
+
+    /*
+     * Endpoint para eliminar una marca y todos sus precios por su ID.
+     * Si no se encuentra la marca, lanza una excepción indicando que el recurso no existe.
+     */
+    @Operation(summary = "Delete a brand by ID", description = "Delete a brand and its prices by its ID")
+    @ApiResponse(responseCode = "204", description = "No Content")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBrand(@PathVariable("id") long id) {
+        priceBrandService.getBrandById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Brand not found with ID: " + id));
+
+        priceBrandService.deleteBrand(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.javaguides.springboot.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.javaguides.springboot.dto.ColumnarStoreStatsDto;
+import com.javaguides.springboot.dto.HibernateStatsDto;
+import com.javaguides.springboot.dto.PriceCacheStatsDto;
+import com.javaguides.springboot.resolution.ColumnarPriceEngine;
+import com.javaguides.springboot.resolution.ColumnarPriceStore;
+import com.javaguides.springboot.resolution.ResolvedPriceCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * Controlador PriceAdminController.
+ *
+ * Expone operaciones de administración del servicio de precios, como las estadísticas de la caché
+ * de precios resueltos, para poder dimensionarla en producción, las estadísticas de Hibernate y la ocupación
+ * del almacén columnar de precios.
+ */
+@Tag(
+    name = "PriceBrand Service - PriceAdminController",
+    description = "PriceBrand Service - Exposes admin REST APIs for PriceBrand Service"
+)
+@RestController
+@RequestMapping("/api/admin/prices")
+public class PriceAdminController {
+
+    private final ObjectProvider<ResolvedPriceCache> resolvedPriceCache;
+
+    private final ObjectProvider<ColumnarPriceEngine> columnarPriceEngine;
+
+    private final Statistics hibernateStatistics;
+
+    public PriceAdminController(ObjectProvider<ResolvedPriceCache> resolvedPriceCache,
+                                ObjectProvider<ColumnarPriceEngine> columnarPriceEngine,
+                                EntityManagerFactory entityManagerFactory) {
+        this.resolvedPriceCache = resolvedPriceCache;
+        this.columnarPriceEngine = columnarPriceEngine;
+        this.hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /*
+     * Endpoint con las estadísticas de la caché de precios resueltos (aciertos, fallos, expulsiones y ocupación).
+     * Devuelve 404 si la caché está desactivada.
+     */
+    @Operation(summary = "Get resolved price cache stats", description = "Hit, miss and eviction counts of the resolved price cache")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping("/cache")
+    public ResponseEntity<PriceCacheStatsDto> getCacheStats() {
+        ResolvedPriceCache cache = resolvedPriceCache.getIfAvailable();
+        if (cache == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        CacheStats stats = cache.stats();
+        return ResponseEntity.ok(new PriceCacheStatsDto(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.averageLoadPenalty() / 1_000_000.0,
+                cache.estimatedSize(),
+                cache.maximumSize()));
+    }
+
+    /*
+     * Endpoint para vaciar la caché de precios resueltos.
+     */
+    @Operation(summary = "Clear resolved price cache", description = "Invalidate every entry of the resolved price cache")
+    @ApiResponse(responseCode = "204", description = "No Content")
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        ResolvedPriceCache cache = resolvedPriceCache.getIfAvailable();
+        if (cache == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        cache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    /*
+     * Endpoint con las estadísticas acumuladas de Hibernate: consultas, cargas de entidades y colecciones y caché
+     * de segundo nivel. Sirve para detectar consultas N+1 y colecciones cargadas sin necesidad.
+     */
+    @Operation(summary = "Get Hibernate statistics", description = "Queries, entity loads, collection fetches and second-level cache hits")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping("/hibernate")
+    public ResponseEntity<HibernateStatsDto> getHibernateStats() {
+        Statistics stats = hibernateStatistics;
+        return ResponseEntity.ok(new HibernateStatsDto(
+                stats.isStatisticsEnabled(),
+                stats.getPrepareStatementCount(),
+                stats.getQueryExecutionCount(),
+                stats.getQueryExecutionMaxTime(),
+                stats.getQueryExecutionMaxTimeQueryString(),
+                stats.getEntityLoadCount(),
+                stats.getEntityFetchCount(),
+                stats.getEntityInsertCount(),
+                stats.getCollectionLoadCount(),
+                stats.getCollectionFetchCount(),
+                stats.getSecondLevelCacheHitCount(),
+                stats.getSecondLevelCacheMissCount(),
+                stats.getSessionOpenCount(),
+                stats.getTransactionCount()));
+    }
+
+    /*
+     * Endpoint para poner a cero las estadísticas de Hibernate.
+     */
+    @Operation(summary = "Clear Hibernate statistics", description = "Reset every Hibernate statistic to zero")
+    @ApiResponse(responseCode = "204", description = "No Content")
+    @DeleteMapping("/hibernate")
+    public ResponseEntity<Void> clearHibernateStats() {
+        hibernateStatistics.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    /*
+     * Endpoint con la ocupación del almacén columnar (bytes por precio fuera del heap) comparada con la estimación
+     * de los mismos precios como entidades. Devuelve 404 si el motor activo no es "columnar".
+     */
+    @Operation(summary = "Get columnar store footprint", description = "Bytes per price of the off-heap columnar store compared with entities")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping("/columnar")
+    public ResponseEntity<ColumnarStoreStatsDto> getColumnarStats() {
+        ColumnarPriceEngine engine = columnarPriceEngine.getIfAvailable();
+        if (engine == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        ColumnarPriceStore store = engine.store();
+        return ResponseEntity.ok(new ColumnarStoreStatsDto(
+                store.rows(),
+                ColumnarPriceStore.BYTES_PER_ROW,
+                store.offHeapBytes(),
+                ColumnarPriceStore.ENTITY_BYTES_PER_ROW_ESTIMATE,
+                (long) store.rows() * ColumnarPriceStore.ENTITY_BYTES_PER_ROW_ESTIMATE,
+                engine.overlaySize()));
+    }
+}
@@ -1,24 +1,54 @@
 package com.javaguides.springboot.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javaguides.springboot.config.BinaryFormatConfig;
+import com.javaguides.springboot.dto.BasketDto;
+import com.javaguides.springboot.dto.BasketRequestDto;
+import com.javaguides.springboot.dto.PriceDeltaDto;
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.dto.PriceImportFormat;
+import com.javaguides.springboot.dto.PriceImportReportDto;
+import com.javaguides.springboot.dto.PriceQueryDto;
+import com.javaguides.springboot.dto.PriceSegmentDto;
 import com.javaguides.springboot.dto.PricesDto;
 import com.javaguides.springboot.dto.PricesExamDto;
+import com.javaguides.springboot.event.PriceChangeFeed;
 import com.javaguides.springboot.exception.ResourceNotFoundException;
 import com.javaguides.springboot.mapper.PricesExamMapper;
 import com.javaguides.springboot.mapper.PricesMapper;
 import com.javaguides.springboot.model.BRAND;
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.resolution.PriceSegment;
 import com.javaguides.springboot.service.PriceBrandService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Consumer;
 
 /*
  * Controlador PriceBrandController.
@@ -35,27 +65,165 @@ import java.util.*;
 @RequestMapping("/api/prices")
 public class PriceBrandController {
 
+    /*
+     * Número máximo de consultas admitidas en una petición de resolución por lotes.
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    /*
+     * Tamaño de página por defecto y máximo del listado de precios.
+     */
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /*
+     * Cabecera con el cursor de la página siguiente del listado de precios.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private PriceBrandService priceBrandService;
 
     @Autowired
     private PricesMapper pricesMapper;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private PriceChangeFeed priceChangeFeed;
+
     /*
-     * Endpoint para obtener todos los precios almacenados en la base de datos.
+     * Tiempo que clientes y CDN pueden reutilizar una respuesta de /fechaAppli sin revalidarla: el retraso máximo con
+     * el que ven un cambio del catálogo.
+     */
+    @Value("${prices.http-cache.max-age:PT5M}")
+    private Duration httpCacheMaxAge;
+
+    /*
+     * Endpoint para obtener los precios almacenados en la base de datos, página a página.
      * 
-     * Este método obtiene una lista de todos los precios registrados, los convierte
-     * en objetos DTO y los devuelve en una respuesta HTTP con el código 200 (OK).
+     * Los precios se devuelven ordenados por ID en páginas de "size" elementos (por defecto DEFAULT_PAGE_SIZE),
+     * filtrados opcionalmente por marca, producto, tarifa y fecha de vigencia. Si hay más precios, la respuesta incluye
+     * la cabecera X-Next-Cursor (y un enlace Link rel="next") con el cursor que se envía en el parámetro "cursor"
+     * para pedir la página siguiente; así, las páginas profundas cuestan lo mismo que la primera.
+     * Si el cursor o el tamaño de página no son válidos devuelve 400 (Bad Request).
      */
-    @Operation(summary = "Get all prices", description = "Fetch all prices from the database")
+    @Operation(summary = "Get all prices", description = "Fetch prices from the database page by page, ordered by ID")
     @ApiResponse(responseCode = "200", description = "OK")
     @GetMapping("/")
-    public ResponseEntity<List<PricesDto>> getAllPrices() {
-        List<PRICES> pricesList = priceBrandService.getAllPrices();
-        List<PricesDto> pricesDtoList = pricesList.stream()
-                .map(PricesMapper::mapToPricesDto)  // Llamada estática al mapper
-                .toList();
-        return ResponseEntity.ok(pricesDtoList);
+    public ResponseEntity<List<PricesDto>> getAllPrices(
+            PriceFilterDto filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+
+        Long afterPriceId = decodeCursor(cursor);
+        if (afterPriceId == null || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        return toPageResponse(priceBrandService.getPrices(filter, afterPriceId, size));
+    }
+
+    /*
+     * Endpoint para exportar el catálogo completo de precios en formato NDJSON (un PricesDto JSON por línea), o como
+     * secuencia CBOR (application/cbor-seq) si se pide en la cabecera Accept.
+     * 
+     * Los precios se leen de la base de datos en streaming y se escriben directamente en la respuesta según se leen,
+     * por lo que la memoria usada no depende del tamaño de la tabla. Pensado para las copias nocturnas del catálogo.
+     */
+    @Operation(summary = "Export all prices", description = "Stream every price as newline-delimited JSON or as a CBOR sequence")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, BinaryFormatConfig.APPLICATION_CBOR_SEQ_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportPrices(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) List<MediaType> accept) {
+        return streamingResponse(accept, sink -> priceBrandService.exportPrices(price -> sink.accept(PricesMapper.mapToPricesDto(price))));
+    }
+
+    /*
+     * Endpoint para sincronizar una copia local del catálogo: devuelve, página a página, los precios creados,
+     * modificados o borrados (lápidas) desde la versión "since" del catálogo (0 para el catálogo completo).
+     *
+     * Cada cambio lleva la versión en la que se produjo; la mayor recibida es el "since" de la siguiente sincronización.
+     * Como en el listado de precios, si hay más cambios la respuesta incluye X-Next-Cursor y un enlace Link rel="next".
+     * Si la versión, el cursor o el tamaño de página no son válidos devuelve 400 (Bad Request).
+     */
+    @Operation(summary = "Get price changes since a catalog version", description = "Fetch the prices inserted, updated or deleted since a catalog version, page by page")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping("/delta")
+    public ResponseEntity<List<PriceDeltaDto>> getPriceDelta(
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+
+        // Sin cursor se empieza después de todos los cambios de la versión "since"
+        long[] position = cursor == null || cursor.isEmpty() ? new long[]{since, Long.MAX_VALUE} : decodeDeltaCursor(cursor);
+        if (since < 0 || position == null || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        Slice<PriceDeltaDto> deltaPage = priceBrandService.getPriceDelta(position[0], position[1], size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (deltaPage.hasNext()) {
+            PriceDeltaDto last = deltaPage.getContent().get(deltaPage.getNumberOfElements() - 1);
+            String nextCursor = encodeCursor(last.getVersion() + ":" + last.getPriceId());
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, nextCursor)
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(deltaPage.getContent());
+    }
+
+    /*
+     * Endpoint para exportar en formato NDJSON (un PriceDeltaDto JSON por línea) todos los cambios del catálogo desde
+     * la versión "since", leídos en streaming como en /export. Si la versión no es válida devuelve 400 (Bad Request).
+     */
+    @Operation(summary = "Export price changes since a catalog version", description = "Stream every price change since a catalog version as newline-delimited JSON or as a CBOR sequence")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping(value = "/delta/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, BinaryFormatConfig.APPLICATION_CBOR_SEQ_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportPriceDelta(
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) List<MediaType> accept) {
+        if (since < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return streamingResponse(accept, sink -> priceBrandService.exportPriceDelta(since, sink::accept));
+    }
+
+    /*
+     * Respuesta en streaming de las exportaciones: cada objeto que "export" entrega al consumidor se escribe en cuanto
+     * se recibe, como una línea JSON (NDJSON) o, si el cliente acepta explícitamente application/cbor-seq, como un
+     * elemento CBOR de la secuencia.
+     */
+    private ResponseEntity<StreamingResponseBody> streamingResponse(List<MediaType> accept, Consumer<Consumer<Object>> export) {
+        boolean cbor = accept.stream().anyMatch(BinaryFormatConfig.APPLICATION_CBOR_SEQ::equalsTypeAndSubtype);
+        ObjectMapper mapper = cbor ? cborConverter.getObjectMapper() : objectMapper;
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                if (!cbor) {
+                    generator.setRootValueSeparator(null);
+                }
+                export.accept(value -> {
+                    try {
+                        generator.writeObject(value);
+                        if (!cbor) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(cbor ? BinaryFormatConfig.APPLICATION_CBOR_SEQ : MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /*
@@ -77,9 +245,14 @@ public class PriceBrandController {
     /*
      * Endpoint para obtener un precio basado en la fecha de aplicación, ID de producto y ID de marca.
      * 
-     * Busca en la base de datos el precio que coincida con los criterios proporcionados, incluyendo
-     * la fecha, el ID de producto y el ID de marca. Si se encuentra un precio, lo devuelve en formato DTO.
+     * Resuelve el precio que coincida con los criterios proporcionados, incluyendo la fecha, el ID de producto y el ID
+     * de marca, con el motor en memoria, la caché o la base de datos (ver PriceBrandService.findPriceSegmentAt).
+     * Si se encuentra un precio, lo devuelve en formato DTO.
      * Si no se encuentra, devuelve una respuesta con el estado 404 (Not Found).
+     *
+     * La respuesta lleva una ETag fuerte (PriceETag) con la versión del catálogo, el precio ganador y su tramo, y
+     * Cache-Control max-age y Expires de prices.http-cache.max-age. Si If-None-Match trae la ETag del precio que resuelve
+     * esta petición devuelve 304 (Not Modified) sin cuerpo.
      */
     @Operation(summary = "Get price by fechaAplicacion, prodId, brandId", description = "Fetch a price based on multiple criteria")
     @ApiResponse(responseCode = "200", description = "OK")
@@ -87,16 +260,117 @@ public class PriceBrandController {
     public ResponseEntity<PricesExamDto> getPriceByCriteria(
             @PathVariable("fechaAplicacion") @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime fechaAplicacion,
             @PathVariable("prodId") long prodId,
-            @PathVariable("brandId") long brandId) {
+            @PathVariable("brandId") long brandId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        PRICES price = priceBrandService.findByDateRequestIdProductIdBrand(fechaAplicacion, prodId, brandId);
-
-        if (price != null) {
-            PricesExamDto pricesExamDto = PricesExamMapper.mapToPricesExamDto(price);
-            return ResponseEntity.ok(pricesExamDto);
-        } else {
+        // La versión se lee antes que los precios: una ETag nunca combina una versión con una respuesta anterior a ella
+        long catalogVersion = priceBrandService.getCatalogVersion();
+        Optional<PriceSegment> segment = priceBrandService.findPriceSegmentAt(fechaAplicacion, prodId, brandId);
+        if (segment.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new PricesExamDto());
         }
+
+        PriceETag eTag = PriceETag.of(catalogVersion, segment.get());
+        if (eTag.matches(ifNoneMatch)) {
+            return withCacheHeaders(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag).build();
+        }
+        return withCacheHeaders(ResponseEntity.ok(), eTag)
+                .body(PricesExamMapper.mapToPricesExamDto(segment.get().price()));
+    }
+
+    /*
+     * Añade ETag, Cache-Control y Expires. La respuesta sobre una fecha concreta sólo cambia con el catálogo, no con el
+     * paso del tiempo, así que max-age es siempre httpCacheMaxAge y no depende de la fecha consultada.
+     */
+    private ResponseEntity.BodyBuilder withCacheHeaders(ResponseEntity.BodyBuilder response, PriceETag eTag) {
+        Instant expires = Instant.now().plus(httpCacheMaxAge);
+        return response.eTag(eTag.value())
+                .cacheControl(CacheControl.maxAge(httpCacheMaxAge))
+                .headers(headers -> headers.setExpires(expires.atZone(ZoneOffset.UTC)));
+    }
+
+    /*
+     * Endpoint para obtener la línea temporal de precios efectivos de un producto de una marca entre dos fechas.
+     *
+     * Sustituye a llamar a /fechaAppli/{fechaAplicacion}/{prodId}/{brandId} una vez por cada instante del rango: devuelve
+     * los tramos consecutivos en los que se aplica un mismo precio, con la prioridad ya aplicada, ordenados por fecha.
+     * Si la fecha de inicio es posterior a la de fin devuelve 400 (Bad Request).
+     */
+    @Operation(summary = "Get price timeline by prodId, brandId and date range", description = "Fetch the effective price segments of a product between two dates")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping("/timeline/{prodId}/{brandId}")
+    public ResponseEntity<List<PriceSegmentDto>> getPriceTimeline(
+            @PathVariable("prodId") long prodId,
+            @PathVariable("brandId") long brandId,
+            @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return ResponseEntity.ok(priceBrandService.getPriceTimeline(prodId, brandId, from, to));
+    }
+
+    /*
+     * Endpoint para obtener por lotes los precios aplicables a varias consultas (fecha de aplicación, ID de producto e ID de marca).
+     * 
+     * Sustituye a llamar una vez por línea a /fechaAppli/{fechaAplicacion}/{prodId}/{brandId}: todas las consultas se resuelven
+     * de una sola vez en el servicio. Devuelve una lista en el mismo orden que las consultas; las que no tienen precio
+     * aplicable se devuelven sólo con el producto y la marca. Si se superan las MAX_BATCH_SIZE consultas, o alguna consulta
+     * es nula o no tiene fecha de aplicación, devuelve 400 (Bad Request).
+     */
+    @Operation(summary = "Get prices by fechaAplicacion, prodId, brandId in batch", description = "Fetch the prices of several criteria in one request")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PostMapping("/fechaAppli/batch")
+    public ResponseEntity<List<PricesExamDto>> getPricesByCriteriaBatch(@RequestBody List<PriceQueryDto> queries) {
+        if (queries.size() > MAX_BATCH_SIZE
+                || queries.stream().anyMatch(query -> query == null || query.getFechaAplicacion() == null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        List<PRICES> prices = priceBrandService.findByDateRequestIdProductIdBrand(queries);
+
+        List<PricesExamDto> pricesExamDtoList = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            PRICES price = prices.get(i);
+            PriceQueryDto query = queries.get(i);
+            pricesExamDtoList.add(price.getBrand() != null
+                    ? PricesExamMapper.mapToPricesExamDto(price)
+                    : new PricesExamDto(query.getProductId(), query.getBrandId(), 0, 0, null, null));
+        }
+        return ResponseEntity.ok(pricesExamDtoList);
+    }
+
+    /*
+     * Endpoint con el feed de cambios de precios (Server-Sent Events) para no tener que sondear el listado de precios.
+     *
+     * Cada escritura confirmada se envía como un evento "price-change" cuyo id es su número de secuencia. Al reconectarse
+     * con la cabecera Last-Event-ID se reciben primero los cambios perdidos mientras sigan en el buffer del servicio; si
+     * no, un evento "reset" indica que hay que volver a leer los precios. Los clientes que no consumen a tiempo se
+     * desconectan y deben reconectarse con su Last-Event-ID.
+     */
+    @Operation(summary = "Stream price changes", description = "Server-Sent Events feed of committed price changes, resumable with Last-Event-ID")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPriceChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return priceChangeFeed.subscribe(lastEventId);
+    }
+
+    /*
+     * Endpoint para valorar una cesta: varios productos de una misma cadena en una misma fecha de aplicación.
+     *
+     * Devuelve el precio aplicable de cada producto en el mismo orden que la petición (los que no tienen precio sólo
+     * con el producto y la marca) y el total de la cesta. Si se superan los MAX_BATCH_SIZE productos o falta la fecha
+     * devuelve 400 (Bad Request); si los precios están en monedas distintas, 422 (Unprocessable Entity).
+     */
+    @Operation(summary = "Price a basket of products of a brand at fechaAplicacion", description = "Fetch the price of every product of a basket and its total")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PostMapping("/basket")
+    public ResponseEntity<BasketDto> priceBasket(@RequestBody BasketRequestDto basket) {
+        if (basket.getFechaAplicacion() == null || basket.getProductIds() == null
+                || basket.getProductIds().size() > MAX_BATCH_SIZE || basket.getProductIds().contains(null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return ResponseEntity.ok(priceBrandService.priceBasket(basket.getBrandId(), basket.getFechaAplicacion(), basket.getProductIds()));
     }
 
     /*
@@ -120,6 +394,23 @@ public class PriceBrandController {
                 .body(pricesMapper.mapToPricesDto(priceToSave));
     }
 
+    /*
+     * Endpoint para importar de forma masiva precios desde un fichero CSV (text/csv) o NDJSON (application/x-ndjson).
+     * 
+     * El fichero se procesa en streaming y las filas válidas se insertan por lotes; las marcas se comprueban contra las
+     * existentes en la base de datos. Devuelve el informe de la importación con las filas por segundo y los rechazos.
+     * Si un bloque falla, el informe es parcial (complete a false) e indica en committedThroughLine la última línea ya
+     * importada, para reenviar sólo el resto del fichero.
+     */
+    @Operation(summary = "Bulk import prices", description = "Import prices from a CSV or NDJSON upload using JDBC batches")
+    @ApiResponse(responseCode = "200", description = "OK")
+    @PostMapping(value = "/import", consumes = {PriceImportFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<PriceImportReportDto> importPrices(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             InputStream inputStream) {
+        PriceImportReportDto report = priceBrandService.importPrices(inputStream, PriceImportFormat.fromMediaType(contentType));
+        return ResponseEntity.ok(report);
+    }
+
     /*
      * Endpoint para actualizar un precio existente por su ID.
      * 
@@ -170,4 +461,62 @@ public class PriceBrandController {
         priceBrandService.deletePrice(id);
         return ResponseEntity.noContent().build();
     }
+
+    /*
+     * Respuesta de una página de precios: los PricesDto y, si hay más precios, las cabeceras X-Next-Cursor y
+     * Link rel="next" con el cursor de la página siguiente. También la usa BrandController para /api/brands/{id}/prices.
+     */
+    static ResponseEntity<List<PricesDto>> toPageResponse(Slice<PRICES> pricesPage) {
+        List<PricesDto> pricesDtoList = pricesPage.stream()
+                .map(PricesMapper::mapToPricesDto)  // Llamada estática al mapper
+                .toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (pricesPage.hasNext()) {
+            String nextCursor = encodeCursor(pricesDtoList.get(pricesDtoList.size() - 1).getPriceId());
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, nextCursor)
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(pricesDtoList);
+    }
+
+    /*
+     * Codifica el ID del último precio de una página como cursor opaco para pedir la siguiente.
+     */
+    private static String encodeCursor(long priceId) {
+        return encodeCursor(Long.toString(priceId));
+    }
+
+    private static String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+     * Decodifica un cursor de encodeCursor. Sin cursor se empieza por el principio (0); un cursor inválido devuelve null.
+     */
+    static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Decodifica un cursor del registro de cambios con la posición {versión, priceId}; si no es válido devuelve null.
+     */
+    static long[] decodeDeltaCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return position.length == 2 ? new long[]{Long.parseLong(position[0]), Long.parseLong(position[1])} : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
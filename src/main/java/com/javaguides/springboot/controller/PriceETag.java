@@ -0,0 +1,60 @@
+package com.javaguides.springboot.controller;
+
+import com.javaguides.springboot.resolution.PriceSegment;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * ETag fuerte de las respuestas de /fechaAppli/{fechaAplicacion}/{prodId}/{brandId}: versión del catálogo con la que se
+ * resolvió, precio ganador y tramo [from, until) en el que es el aplicable (segundos epoch de las fechas del catálogo).
+ *
+ * La ETag identifica el precio que resuelve cada petición, no sólo la versión: una ETag de otro producto, marca o fecha
+ * no coincide aunque la versión del catálogo sea la misma, así que la petición condicional se compara después de
+ * resolver el precio.
+ */
+record PriceETag(long catalogVersion, long priceId, long fromEpochSecond, long untilEpochSecond) {
+
+    /**
+     * ETag del tramo de precio efectivo resuelto con la versión del catálogo indicada.
+     */
+    static PriceETag of(long catalogVersion, PriceSegment segment) {
+        return new PriceETag(catalogVersion, segment.price().priceId(), epochSecond(segment.from()),
+                epochSecond(segment.until()));
+    }
+
+    /**
+     * Indica si la cabecera If-None-Match contiene esta ETag o "*". Las comparaciones de If-None-Match son débiles,
+     * por lo que se admite el prefijo W/.
+     */
+    boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String value = value();
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Valor de la cabecera ETag, entre comillas.
+     */
+    String value() {
+        return "\"" + catalogVersion + "-" + priceId + "-" + fromEpochSecond + "-" + untilEpochSecond + "\"";
+    }
+
+    /**
+     * Las fechas del catálogo no llevan zona: aquí sólo identifican el tramo, así que basta con leerlas en UTC.
+     */
+    private static long epochSecond(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+}
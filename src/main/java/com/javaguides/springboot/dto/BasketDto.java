@@ -0,0 +1,41 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clase BasketDto con la valoración de una cesta: el precio aplicable de cada producto, en el mismo orden que la
+ * petición, y el total de los productos con precio.
+ */
+@Schema(description = "Valoración de una cesta de productos de una cadena en una fecha de aplicación.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketDto {
+
+    @Schema(description = "Identificador de la cadena (BRAND_ID).")
+    private long brandId;
+
+    @Schema(description = "Fecha de aplicación de los precios.")
+    private LocalDateTime fechaAplicacion;
+
+    @Schema(description = "Precio aplicable de cada producto, en el orden de la petición; sin precio sólo se informan producto y cadena.")
+    private List<PricesExamDto> items;
+
+    @Schema(description = "Productos de la cesta sin precio aplicable en la fecha, que no suman en el total.")
+    private List<Long> unpricedProductIds;
+
+    @Schema(description = "Suma de los precios de la cesta, redondeada a los decimales de la moneda.")
+    private BigDecimal total;
+
+    @Schema(description = "Moneda del total (ISO 4217), común a todos los precios de la cesta; vacía si ningún producto tiene precio.")
+    private String curr;
+}
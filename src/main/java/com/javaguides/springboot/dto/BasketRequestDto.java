@@ -0,0 +1,31 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clase BasketRequestDto usada en /src/main/java/com.javaguides.springboot/controller/PriceBrandController para recibir
+ * una cesta: los productos de una misma cadena que se valoran en la misma fecha de aplicación.
+ */
+@Schema(description = "Cesta a valorar: cadena, fecha de aplicación y productos.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketRequestDto {
+
+    @Schema(description = "Identificador de la cadena (BRAND_ID).")
+    private long brandId;
+
+    @Schema(description = "Fecha de aplicación (yyyy-MM-dd'T'HH:mm:ss).")
+    private LocalDateTime fechaAplicacion;
+
+    @Schema(description = "Identificadores de los productos de la cesta; un producto repetido cuenta una vez por línea.")
+    private List<Long> productIds;
+}
@@ -0,0 +1,28 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clase BrandDto usada en /src/main/java/com.javaguides.springboot/controller/BrandController para crear y actualizar
+ * marcas. Contiene los datos propios de la Clase BRAND, sin sus precios.
+ */
+@Schema(description = "Modelo BrandDto que contiene información sobre una marca (cadena).")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrandDto {
+
+    @Schema(description = "Identificador de la marca en la tabla.")
+    private long id;
+
+    @Schema(description = "Nombre de la marca.")
+    private String name;
+
+    @Schema(description = "Descripción de la marca.")
+    private String description;
+}
@@ -0,0 +1,31 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clase BrandSummaryDto con los datos de una marca y el número de precios que tiene, calculado con una consulta
+ * agregada en la base de datos (BrandRepository.findSummaries) sin cargar los precios.
+ */
+@Schema(description = "Resumen de una marca (cadena) con su número de precios.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrandSummaryDto {
+
+    @Schema(description = "Identificador de la marca en la tabla.")
+    private long id;
+
+    @Schema(description = "Nombre de la marca.")
+    private String name;
+
+    @Schema(description = "Descripción de la marca.")
+    private String description;
+
+    @Schema(description = "Número de precios de la marca.")
+    private long priceCount;
+}
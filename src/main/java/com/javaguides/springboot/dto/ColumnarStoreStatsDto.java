@@ -0,0 +1,37 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clase ColumnarStoreStatsDto con la ocupación del almacén columnar de precios comparada con la estimación
+ * de la misma información cargada como entidades PRICES en el heap.
+ */
+@Schema(description = "Ocupación del almacén columnar de precios.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarStoreStatsDto {
+
+    @Schema(description = "Número de precios en el almacén.")
+    private int rows;
+
+    @Schema(description = "Bytes por precio en las columnas fuera del heap.")
+    private int bytesPerRow;
+
+    @Schema(description = "Bytes totales ocupados fuera del heap.")
+    private long offHeapBytes;
+
+    @Schema(description = "Bytes por precio estimados como entidad PRICES en el heap.")
+    private int entityBytesPerRow;
+
+    @Schema(description = "Bytes totales estimados como entidades PRICES en el heap.")
+    private long entityBytes;
+
+    @Schema(description = "Claves (marca, producto) modificadas pendientes de compactar en el almacén.")
+    private int pendingKeys;
+}
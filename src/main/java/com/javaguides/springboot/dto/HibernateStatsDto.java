@@ -0,0 +1,61 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clase HibernateStatsDto con las estadísticas acumuladas de Hibernate desde el arranque (o el último borrado):
+ * sentencias y consultas ejecutadas, entidades y colecciones cargadas y uso de la caché de segundo nivel.
+ */
+@Schema(description = "Estadísticas acumuladas de Hibernate.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HibernateStatsDto {
+
+    @Schema(description = "Indica si Hibernate está recogiendo estadísticas (hibernate.generate_statistics).")
+    private boolean enabled;
+
+    @Schema(description = "Sentencias JDBC preparadas.")
+    private long prepareStatementCount;
+
+    @Schema(description = "Consultas HQL/JPQL/SQL ejecutadas.")
+    private long queryExecutionCount;
+
+    @Schema(description = "Tiempo de la consulta más lenta en milisegundos.")
+    private long queryExecutionMaxTime;
+
+    @Schema(description = "Texto de la consulta más lenta.")
+    private String queryExecutionMaxTimeQueryString;
+
+    @Schema(description = "Entidades cargadas.")
+    private long entityLoadCount;
+
+    @Schema(description = "Entidades leídas de la base de datos bajo demanda (proxies y asociaciones).")
+    private long entityFetchCount;
+
+    @Schema(description = "Entidades insertadas.")
+    private long entityInsertCount;
+
+    @Schema(description = "Colecciones cargadas.")
+    private long collectionLoadCount;
+
+    @Schema(description = "Colecciones leídas de la base de datos bajo demanda.")
+    private long collectionFetchCount;
+
+    @Schema(description = "Aciertos en la caché de segundo nivel.")
+    private long secondLevelCacheHitCount;
+
+    @Schema(description = "Fallos en la caché de segundo nivel.")
+    private long secondLevelCacheMissCount;
+
+    @Schema(description = "Sesiones abiertas.")
+    private long sessionOpenCount;
+
+    @Schema(description = "Transacciones completadas.")
+    private long transactionCount;
+}
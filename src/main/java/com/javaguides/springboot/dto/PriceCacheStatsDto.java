@@ -0,0 +1,40 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clase PriceCacheStatsDto con las estadísticas de la caché de precios resueltos, para poder dimensionarla:
+ * aciertos, fallos, expulsiones, cargas y ocupación.
+ */
+@Schema(description = "Estadísticas de la caché de precios resueltos.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceCacheStatsDto {
+
+    @Schema(description = "Consultas resueltas desde la caché.")
+    private long hitCount;
+
+    @Schema(description = "Consultas que han tenido que cargar el tramo desde la base de datos.")
+    private long missCount;
+
+    @Schema(description = "Proporción de aciertos sobre el total de consultas (0 a 1).")
+    private double hitRate;
+
+    @Schema(description = "Entradas expulsadas por tamaño o caducidad.")
+    private long evictionCount;
+
+    @Schema(description = "Tiempo medio de carga de un tramo desde la base de datos en milisegundos.")
+    private double averageLoadPenaltyMillis;
+
+    @Schema(description = "Número aproximado de entradas en la caché.")
+    private long size;
+
+    @Schema(description = "Número máximo de entradas configurado.")
+    private long maximumSize;
+}
@@ -0,0 +1,39 @@
+package com.javaguides.springboot.dto;
+
+import com.javaguides.springboot.model.PriceKey;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Clase PriceChangeNotificationDto con una notificación del feed de cambios de precios (/api/prices/changes).
+ *
+ * "sequence" crece de uno en uno con cada escritura confirmada y es también el "id" del evento SSE, de modo que un
+ * cliente que se reconecta con la cabecera Last-Event-ID recibe las notificaciones posteriores a la última que vio.
+ */
+@Schema(description = "Notificación de un cambio de precios confirmado.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceChangeNotificationDto {
+
+    @Schema(description = "Número de secuencia de la notificación, creciente desde el arranque del servicio.")
+    private long sequence;
+
+    @Schema(description = "Tipo de cambio: PRICE_CREATED, PRICE_UPDATED, PRICE_DELETED, BRAND_DELETED o PRICES_IMPORTED.")
+    private String type;
+
+    @Schema(description = "Identificador del precio (PRICES) creado, modificado o borrado; null en el resto de cambios.")
+    private Long priceId;
+
+    @Schema(description = "Identificador de la cadena (BRAND_ID) borrada; null en el resto de cambios.")
+    private Long brandId;
+
+    @Schema(description = "Claves (marca, producto) cuyos precios han cambiado.")
+    private List<PriceKey> keys;
+}
@@ -0,0 +1,31 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Clase PriceDeltaDto con un cambio del catálogo de precios posterior a una versión (/api/prices/delta): el estado
+ * actual de un precio creado o modificado, o la lápida de un precio borrado.
+ */
+@Schema(description = "Cambio de un precio del catálogo posterior a una versión.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceDeltaDto {
+
+    @Schema(description = "Versión del catálogo en la que cambió el precio por última vez.")
+    private long version;
+
+    @Schema(description = "Identificador del precio en la tabla.")
+    private long priceId;
+
+    @Schema(description = "Indica si el precio está borrado (lápida); en ese caso \"price\" es null.")
+    private boolean deleted;
+
+    @Schema(description = "Estado actual del precio, o null si está borrado.")
+    private PricesDto price;
+}
@@ -0,0 +1,37 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clase PriceFilterDto con los filtros opcionales del listado paginado de precios de
+ * /src/main/java/com.javaguides.springboot/controller/PriceBrandController. Los filtros a null no se aplican.
+ */
+@Schema(description = "Filtros opcionales del listado de precios.")
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceFilterDto {
+
+    @Schema(description = "Identificador de la cadena (brand).")
+    private Long brandId;
+
+    @Schema(description = "Identificador del código de producto.")
+    private Long productId;
+
+    @Schema(description = "Lista de precios aplicable.")
+    private Integer priceList;
+
+    @Schema(description = "Fecha en la que el precio debe estar vigente (yyyy-MM-dd'T'HH:mm:ss).")
+    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime activeAt;
+}
@@ -0,0 +1,29 @@
+package com.javaguides.springboot.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos admitidos por la importación masiva de precios.
+ *
+ * CSV: una fila por línea con las columnas BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR
+ * (el mismo orden que data.sql), con cabecera opcional. NDJSON: un PricesDto JSON por línea.
+ */
+public enum PriceImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * Obtiene el formato a partir del Content-Type de la petición, o null si no está soportado.
+     */
+    public static PriceImportFormat fromMediaType(MediaType mediaType) {
+        if (MediaType.valueOf(TEXT_CSV_VALUE).includes(mediaType)) {
+            return CSV;
+        }
+        if (MediaType.APPLICATION_NDJSON.includes(mediaType)) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase PriceImportReportDto con el resultado de una importación masiva de precios: filas leídas, importadas
+ * y rechazadas, tiempo empleado, velocidad y el detalle de las filas rechazadas.
+ *
+ * Cada bloque de filas se confirma en su propia transacción. Si un bloque falla la importación se detiene y el informe
+ * es parcial: complete es false, failure describe el bloque que falló y committedThroughLine indica hasta qué línea
+ * del fichero está ya importado, para reanudar desde la siguiente sin duplicar precios.
+ */
+@Schema(description = "Resultado de una importación masiva de precios.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceImportReportDto {
+
+    @Schema(description = "Filas de datos leídas (sin contar la cabecera ni líneas vacías).")
+    private long rowsRead;
+
+    @Schema(description = "Filas insertadas en la tabla de precios.")
+    private long rowsImported;
+
+    @Schema(description = "Filas rechazadas por no ser válidas.")
+    private long rowsRejected;
+
+    @Schema(description = "Tiempo total de la importación en milisegundos.")
+    private long elapsedMillis;
+
+    @Schema(description = "Filas importadas por segundo.")
+    private double rowsPerSecond;
+
+    @Schema(description = "Detalle de las filas rechazadas (como máximo las primeras 1000).")
+    private List<Reject> rejects = new ArrayList<>();
+
+    @Schema(description = "true si se han confirmado todos los bloques; false si la importación se detuvo en un bloque que falló.")
+    private boolean complete = true;
+
+    @Schema(description = "Última línea del fichero cuyas filas válidas están confirmadas en la base de datos (0 si ninguna).")
+    private long committedThroughLine;
+
+    @Schema(description = "Bloque que falló y detuvo la importación, o null si no falló ninguno.")
+    private ChunkFailure failure;
+
+    /**
+     * Fila rechazada: número de línea en el fichero y motivo.
+     */
+    @Schema(description = "Fila rechazada en la importación.")
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reject {
+
+        @Schema(description = "Número de línea en el fichero importado, empezando en 1.")
+        private long line;
+
+        @Schema(description = "Motivo del rechazo.")
+        private String reason;
+    }
+
+    /**
+     * Bloque de filas que no se pudo confirmar: líneas del fichero que abarca, filas válidas que contenía y motivo.
+     * Ninguna de sus filas se ha importado.
+     */
+    @Schema(description = "Bloque de la importación que no se pudo confirmar.")
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkFailure {
+
+        @Schema(description = "Primera línea del fichero del bloque.")
+        private long fromLine;
+
+        @Schema(description = "Última línea del fichero del bloque.")
+        private long toLine;
+
+        @Schema(description = "Filas válidas del bloque, ninguna importada.")
+        private long rows;
+
+        @Schema(description = "Motivo del fallo.")
+        private String reason;
+    }
+}
@@ -0,0 +1,30 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clase PriceQueryDto usada en /src/main/java/com.javaguides.springboot/controller/PriceBrandController para recibir
+ * cada una de las consultas (fecha de aplicación, producto, cadena) de la resolución de precios por lotes.
+ */
+@Schema(description = "Consulta de precio aplicable: fecha de aplicación, producto y cadena.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQueryDto {
+
+    @Schema(description = "Fecha de aplicación (yyyy-MM-dd'T'HH:mm:ss).")
+    private LocalDateTime fechaAplicacion;
+
+    @Schema(description = "Identificador código de producto.")
+    private long productId;
+
+    @Schema(description = "Identificador de la cadena (BRAND_ID).")
+    private long brandId;
+}
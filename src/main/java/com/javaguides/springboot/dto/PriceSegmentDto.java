@@ -0,0 +1,45 @@
+package com.javaguides.springboot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clase PriceSegmentDto con un tramo de la línea temporal de precios efectivos de un producto de una marca:
+ * entre "from" (incluido) y "until" (excluido) se aplica siempre el mismo precio, ya resuelto por prioridad.
+ */
+@Schema(description = "Tramo de la línea temporal de precios efectivos de un producto.")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSegmentDto {
+
+    @Schema(description = "Identificador código de producto.")
+    private long productId;
+
+    @Schema(description = "Identificador de la cadena (BRAND_ID).")
+    private long brandId;
+
+    @Schema(description = "Identificador del precio (PRICES) que se aplica en el tramo.")
+    private long priceId;
+
+    @Schema(description = "Identificador de la tarifa de precios aplicable.")
+    private int priceList;
+
+    @Schema(description = "Precio final de venta.")
+    private double price;
+
+    @Schema(description = "Moneda del precio (ISO 4217).")
+    private String curr;
+
+    @Schema(description = "Inicio del tramo (incluido).")
+    private LocalDateTime from;
+
+    @Schema(description = "Fin del tramo (excluido): el tramo siguiente, si existe, empieza en esta fecha.")
+    private LocalDateTime until;
+}
@@ -0,0 +1,76 @@
+package com.javaguides.springboot.event;
+
+import com.javaguides.springboot.model.PriceKey;
+
+import java.util.Set;
+
+/**
+ * Evento de dominio de una escritura de precios, publicado por PriceBrandServiceImpl. Los oyentes lo reciben sólo
+ * después de que la transacción de la escritura se confirme (@TransactionalEventListener).
+ *
+ * Cada evento lleva las claves (brandId, productId) anteriores y posteriores a la escritura, de modo que las estructuras
+ * derivadas (motor de resolución, cachés) pueden actualizar sólo esas claves en lugar de recargar todo el catálogo.
+ */
+public sealed interface PriceChangeEvent {
+
+    /**
+     * Claves (brandId, productId) cuyos precios han cambiado.
+     */
+    Set<PriceKey> affectedKeys();
+
+    /**
+     * Precio creado con la clave after.
+     */
+    record PriceCreated(long priceId, PriceKey after) implements PriceChangeEvent {
+
+        @Override
+        public Set<PriceKey> affectedKeys() {
+            return Set.of(after);
+        }
+    }
+
+    /**
+     * Precio modificado. before es la clave con la que se cargó (null si no se cargó de la base de datos) y after
+     * la clave con la que queda; si el precio cambia de marca o de producto cambian las dos.
+     */
+    record PriceUpdated(long priceId, PriceKey before, PriceKey after) implements PriceChangeEvent {
+
+        @Override
+        public Set<PriceKey> affectedKeys() {
+            return before == null || before.equals(after) ? Set.of(after) : Set.of(before, after);
+        }
+    }
+
+    /**
+     * Precio borrado, que tenía la clave before.
+     */
+    record PriceDeleted(long priceId, PriceKey before) implements PriceChangeEvent {
+
+        @Override
+        public Set<PriceKey> affectedKeys() {
+            return Set.of(before);
+        }
+    }
+
+    /**
+     * Marca borrada junto con todos sus precios, que tenían las claves before.
+     */
+    record BrandDeleted(long brandId, Set<PriceKey> before) implements PriceChangeEvent {
+
+        @Override
+        public Set<PriceKey> affectedKeys() {
+            return before;
+        }
+    }
+
+    /**
+     * Precios añadidos por una importación masiva con las claves after.
+     */
+    record PricesImported(long rows, Set<PriceKey> after) implements PriceChangeEvent {
+
+        @Override
+        public Set<PriceKey> affectedKeys() {
+            return after;
+        }
+    }
+}
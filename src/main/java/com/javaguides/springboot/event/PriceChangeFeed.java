@@ -0,0 +1,275 @@
+package com.javaguides.springboot.event;
+
+import com.javaguides.springboot.dto.PriceChangeNotificationDto;
+import com.javaguides.springboot.model.PriceKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed de cambios de precios por Server-Sent Events (/api/prices/changes).
+ *
+ * Convierte cada PriceChangeEvent confirmado en una PriceChangeNotificationDto con un número de secuencia creciente y
+ * la guarda en un buffer circular de las últimas "prices.feed.buffer-size" notificaciones. Un cliente que se reconecta
+ * con Last-Event-ID recibe primero las notificaciones del buffer posteriores a ese id; si ya no están en el buffer (o el
+ * id es de antes de un reinicio) recibe un evento "reset" y debe volver a leer los precios que le interesen.
+ *
+ * Las escrituras nunca esperan a los clientes: cada suscriptor tiene una cola acotada que vacían los hilos
+ * "price-feed-". Si un cliente lento llena su cola se le desconecta; al reconectarse con su Last-Event-ID recupera lo
+ * que le faltaba desde el buffer.
+ */
+@Component
+public class PriceChangeFeed {
+
+    public static final String CHANGE_EVENT = "price-change";
+
+    public static final String RESET_EVENT = "reset";
+
+    private static final Logger log = LoggerFactory.getLogger(PriceChangeFeed.class);
+
+    /**
+     * Evento pendiente de enviar a un suscriptor.
+     */
+    private record Message(String name, long id, Object data) {
+    }
+
+    /*
+     * Buffer circular de notificaciones: la de secuencia s está en la posición (s - 1) % ring.length mientras
+     * s > lastSequence - ring.length. Se protege, junto con lastSequence y subscribers, con el monitor de la instancia.
+     */
+    private final PriceChangeNotificationDto[] ring;
+
+    private long lastSequence;
+
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+
+    private final int subscriberQueueSize;
+
+    private final long timeoutMillis;
+
+    private final ExecutorService sender;
+
+    public PriceChangeFeed(@Value("${prices.feed.buffer-size:1024}") int bufferSize,
+                           @Value("${prices.feed.subscriber-queue-size:256}") int subscriberQueueSize,
+                           @Value("${prices.feed.timeout:PT30M}") Duration timeout,
+                           @Value("${prices.feed.sender-threads:2}") int senderThreads) {
+        if (bufferSize < 1 || subscriberQueueSize < 1 || senderThreads < 1) {
+            throw new IllegalArgumentException("prices.feed buffer, queue and thread counts must be positive");
+        }
+        this.ring = new PriceChangeNotificationDto[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeout.toMillis();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("price-feed-");
+        threadFactory.setDaemon(true);
+        this.sender = Executors.newFixedThreadPool(senderThreads, threadFactory);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChange(PriceChangeEvent event) {
+        publish(event);
+    }
+
+    /*
+     * Asigna la secuencia y reparte la notificación en el mismo bloque sincronizado que subscribe(), para que un
+     * suscriptor nuevo no pierda ni reciba dos veces una notificación publicada mientras se suscribe. Los suscriptores
+     * lentos sólo se marcan como cerrados: su SseEmitter se completa en un hilo de envío, porque complete() espera a
+     * que termine un send() en curso y ese envío puede estar bloqueado por el cliente.
+     */
+    synchronized PriceChangeNotificationDto publish(PriceChangeEvent event) {
+        PriceChangeNotificationDto notification = toNotification(++lastSequence, event);
+        ring[(int) ((notification.getSequence() - 1) % ring.length)] = notification;
+
+        Message message = new Message(CHANGE_EVENT, notification.getSequence(), notification);
+        List<Subscriber> slow = new ArrayList<>();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(message)) {
+                subscriber.schedule();
+            } else {
+                slow.add(subscriber);
+            }
+        }
+        for (Subscriber subscriber : slow) {
+            subscribers.remove(subscriber);
+            log.info("Disconnecting slow price feed subscriber at sequence {}", notification.getSequence());
+            subscriber.close();
+        }
+        return notification;
+    }
+
+    /**
+     * Notificaciones posteriores a lastEventId que siguen en el buffer, o vacío si falta alguna: lastEventId es
+     * anterior a la notificación más antigua del buffer o posterior a la última publicada (id de antes de un reinicio).
+     */
+    synchronized Optional<List<PriceChangeNotificationDto>> since(long lastEventId) {
+        long oldest = Math.max(1, lastSequence - ring.length + 1);
+        if (lastEventId < oldest - 1 || lastEventId > lastSequence) {
+            return Optional.empty();
+        }
+        List<PriceChangeNotificationDto> pending = new ArrayList<>((int) (lastSequence - lastEventId));
+        for (long sequence = lastEventId + 1; sequence <= lastSequence; sequence++) {
+            pending.add(ring[(int) ((sequence - 1) % ring.length)]);
+        }
+        return Optional.of(pending);
+    }
+
+    /**
+     * Número de secuencia de la última notificación publicada (0 si todavía no hay ninguna).
+     */
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Número de clientes conectados al feed.
+     */
+    public synchronized int subscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * Suscribe un cliente al feed. Sin lastEventId sólo recibe las notificaciones que se publiquen a partir de ahora.
+     *
+     * @param lastEventId valor de la cabecera Last-Event-ID del cliente, o null.
+     * @return SseEmitter por el que se envían las notificaciones.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                Optional<List<PriceChangeNotificationDto>> pending = since(lastEventId);
+                if (pending.isEmpty() || pending.get().size() > subscriberQueueSize) {
+                    subscriber.offer(new Message(RESET_EVENT, lastSequence, lastSequence));
+                } else {
+                    pending.get().forEach(n -> subscriber.offer(new Message(CHANGE_EVENT, n.getSequence(), n)));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @PreDestroy
+    void close() {
+        List<Subscriber> connected;
+        synchronized (this) {
+            connected = new ArrayList<>(subscribers);
+            subscribers.clear();
+        }
+        connected.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    private static PriceChangeNotificationDto toNotification(long sequence, PriceChangeEvent event) {
+        List<PriceKey> keys = List.copyOf(event.affectedKeys());
+        if (event instanceof PriceChangeEvent.PriceCreated created) {
+            return new PriceChangeNotificationDto(sequence, "PRICE_CREATED", created.priceId(), null, keys);
+        }
+        if (event instanceof PriceChangeEvent.PriceUpdated updated) {
+            return new PriceChangeNotificationDto(sequence, "PRICE_UPDATED", updated.priceId(), null, keys);
+        }
+        if (event instanceof PriceChangeEvent.PriceDeleted deleted) {
+            return new PriceChangeNotificationDto(sequence, "PRICE_DELETED", deleted.priceId(), null, keys);
+        }
+        if (event instanceof PriceChangeEvent.BrandDeleted brandDeleted) {
+            return new PriceChangeNotificationDto(sequence, "BRAND_DELETED", null, brandDeleted.brandId(), keys);
+        }
+        return new PriceChangeNotificationDto(sequence, "PRICES_IMPORTED", null, null, keys);
+    }
+
+    /*
+     * Cliente conectado. Sólo un hilo de envío vacía su cola a la vez (draining); el envío puede bloquearse con un
+     * cliente lento sin afectar a las escrituras, que sólo encolan.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private boolean offer(Message message) {
+            return queue.offer(message);
+        }
+
+        /*
+         * Deja de enviarle notificaciones y completa el emitter en un hilo de envío, sin esperar a un send() en curso.
+         */
+        private void close() {
+            closed = true;
+            queue.clear();
+            try {
+                sender.execute(() -> {
+                    try {
+                        emitter.complete();
+                    } catch (IllegalStateException e) {
+                        log.debug("Price feed subscriber already completed: {}", e.getMessage());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("Price feed closed before completing a subscriber");
+            }
+        }
+
+        private void schedule() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Message message;
+                while (!closed && (message = queue.poll()) != null) {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .name(message.name())
+                                .id(Long.toString(message.id()))
+                                .data(message.data(), MediaType.APPLICATION_JSON));
+                    } catch (IOException | IllegalStateException e) {
+                        unsubscribe(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.javaguides.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*
+ * Clase "CurrencyMismatchException" para indicar que no se puede sumar un conjunto de precios porque no están todos
+ * en la misma moneda, usado por ejemplo en:
+ *          --> /src/main/java/com.javaguides.springboot/service/impl/PriceBrandServiceImpl priceBasket
+ * Se responde con 422 (Unprocessable Entity).
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class CurrencyMismatchException extends RuntimeException{
+    public CurrencyMismatchException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.javaguides.springboot.mapper;
+
+import com.javaguides.springboot.dto.BrandDto;
+import com.javaguides.springboot.model.BRAND;
+
+/**
+ * Clase BrandMapper para convertir entre BRAND (entidad JPA) y BrandDto.
+ */
+public class BrandMapper {
+
+    /**
+     * Convierte una entidad BRAND en un BrandDto, sin acceder a sus precios.
+     *
+     * @param brand la entidad BRAND a convertir.
+     * @return BrandDto con los datos correspondientes.
+     */
+    public static BrandDto mapToBrandDto(BRAND brand) {
+        return new BrandDto(
+                brand.getId(),
+                brand.getName(),
+                brand.getDescription()
+        );
+    }
+
+    /**
+     * Convierte un BrandDto en una entidad BRAND nueva, sin precios.
+     *
+     * @param brandDto el DTO a convertir en una entidad BRAND.
+     * @return BRAND con los datos correspondientes.
+     */
+    public static BRAND mapToBrand(BrandDto brandDto) {
+        return BRAND.builder()
+                .id(brandDto.getId())
+                .name(brandDto.getName())
+                .description(brandDto.getDescription())
+                .build();
+    }
+}
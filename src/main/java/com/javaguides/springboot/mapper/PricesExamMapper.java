@@ -1,8 +1,11 @@
 package com.javaguides.springboot.mapper;
 
 
+import com.javaguides.springboot.dto.PriceSegmentDto;
 import com.javaguides.springboot.dto.PricesExamDto;
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.resolution.PriceEntry;
+import com.javaguides.springboot.resolution.PriceSegment;
 
 /*
  * Clase PricesExamMapper usada en /src/main/java/com.javaguides.springboot/controller/PriceBrandController para la correcta
@@ -22,4 +25,31 @@ public class PricesExamMapper {
         );
         return pricesExamDto;
     }
+
+    // Convert PriceEntry of the in-memory resolution engines into PricesExamDto
+    public static PricesExamDto mapToPricesExamDto(PriceEntry entry){
+        return new PricesExamDto(
+                entry.productId(),
+                entry.brandId(),
+                entry.priceList(),
+                entry.price(),
+                entry.startDate(),
+                entry.endDate()
+        );
+    }
+
+    // Convert PriceSegment of a price timeline into PriceSegmentDto
+    public static PriceSegmentDto mapToPriceSegmentDto(PriceSegment segment){
+        PriceEntry entry = segment.price();
+        return new PriceSegmentDto(
+                entry.productId(),
+                entry.brandId(),
+                entry.priceId(),
+                entry.priceList(),
+                entry.price(),
+                entry.curr(),
+                segment.from(),
+                segment.until()
+        );
+    }
 }
@@ -0,0 +1,78 @@
+package com.javaguides.springboot.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javaguides.springboot.dto.PricesDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clase PricesImportMapper para convertir cada línea de un fichero de importación masiva (CSV o NDJSON) en un PricesDto.
+ * Las líneas mal formadas lanzan IllegalArgumentException con el motivo, que se informa como fila rechazada.
+ */
+public class PricesImportMapper {
+
+    private static final int CSV_COLUMNS = 8;
+
+    /**
+     * Indica si la línea es la cabecera de un CSV (su primera columna no es numérica, p. ej. BRAND_ID).
+     */
+    public static boolean isCsvHeader(String line) {
+        String first = line.split(",", 2)[0].trim();
+        return !first.isEmpty() && !Character.isDigit(first.charAt(0));
+    }
+
+    /**
+     * Convierte una línea CSV con las columnas BRAND_ID, START_DATE, END_DATE, PRICE_LIST, PRODUCT_ID, PRIORITY, PRICE, CURR.
+     * Las fechas se admiten como "yyyy-MM-dd HH:mm:ss" (igual que en data.sql) o "yyyy-MM-dd'T'HH:mm:ss".
+     *
+     * @param line la línea CSV.
+     * @return PricesDto con los datos de la línea, sin priceId.
+     */
+    public static PricesDto fromCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != CSV_COLUMNS) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMNS + " columns but found " + columns.length);
+        }
+        try {
+            return new PricesDto(
+                    0,
+                    Long.parseLong(columns[0].trim()),
+                    parseDate(columns[1]),
+                    parseDate(columns[2]),
+                    Integer.parseInt(columns[3].trim()),
+                    Long.parseLong(columns[4].trim()),
+                    Integer.parseInt(columns[5].trim()),
+                    Double.parseDouble(columns[6].trim()),
+                    unquote(columns[7].trim())
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed CSV row: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convierte una línea NDJSON con un PricesDto.
+     *
+     * @param objectMapper el ObjectMapper de la aplicación.
+     * @param line la línea JSON.
+     * @return PricesDto con los datos de la línea.
+     */
+    public static PricesDto fromNdjson(ObjectMapper objectMapper, String line) {
+        try {
+            return objectMapper.readValue(line, PricesDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON row: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        return LocalDateTime.parse(unquote(value.trim()).replace(' ', 'T'));
+    }
+
+    private static String unquote(String value) {
+        return value.length() >= 2 && (value.startsWith("'") || value.startsWith("\""))
+                ? value.substring(1, value.length() - 1)
+                : value;
+    }
+}
@@ -1,8 +1,10 @@
 package com.javaguides.springboot.mapper;
 
+import com.javaguides.springboot.dto.PriceDeltaDto;
 import com.javaguides.springboot.dto.PricesDto;
 import com.javaguides.springboot.model.BRAND;
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PRICE_CHANGE;
 import com.javaguides.springboot.repository.BrandRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -41,6 +43,23 @@ public class PricesMapper {
         );
     }
 
+    /**
+     * Convierte una fila del registro de cambios y el precio actual en un PriceDeltaDto.
+     *
+     * @param change la fila PRICE_CHANGE del precio.
+     * @param prices el precio actual, o null si está borrado.
+     * @return PriceDeltaDto con el cambio, sin precio si es una lápida.
+     */
+    public static PriceDeltaDto mapToPriceDeltaDto(PRICE_CHANGE change, PRICES prices) {
+        boolean deleted = change.isDeleted() || prices == null;
+        return new PriceDeltaDto(
+                change.getCatalogVersion(),
+                change.getPriceId(),
+                deleted,
+                deleted ? null : mapToPricesDto(prices)
+        );
+    }
+
     /**
      * Convierte un PricesDto en una entidad PRICES.
      *
@@ -48,9 +67,8 @@ public class PricesMapper {
      * @return PRICES con los datos correspondientes.
      */
     public PRICES mapToPrices(PricesDto pricesDto) {
-        // Buscar la entidad BRAND asociada al PricesDto
-        BRAND brand = brandRepository.findById(pricesDto.getBrandId())
-                .orElseThrow(() -> new IllegalArgumentException("Brand not found for ID: " + pricesDto.getBrandId()));
+        // Referencia a la entidad BRAND asociada al PricesDto, sin consultarla: su existencia la comprueba quien guarda el precio
+        BRAND brand = brandRepository.getReferenceById(pricesDto.getBrandId());
 
         // Construir y devolver la entidad PRICES
         return PRICES.builder()
@@ -18,11 +18,19 @@ import java.util.Set;
 @Table(name = "brand")
 public class BRAND {
 
+    /**
+     * Secuencia de los identificadores de marca, con la misma reserva por bloques que la de PRICES.
+     */
+    public static final String ID_SEQUENCE = "brand_seq";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Identificador único de la marca en la tabla 'brand'.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private long id;
 
     /**
@@ -40,7 +48,10 @@ public class BRAND {
     /**
      * Relación One-To-Many con la entidad PRICES, lo que significa que una marca puede tener múltiples precios asociados.
      * La relación está configurada con cascade para que las operaciones de persistencia en la entidad BRAND afecten a los precios relacionados.
+     * Es LAZY: leer un precio (o recorrer el catálogo en la exportación) no arrastra todos los precios de su marca;
+     * los precios de una marca se consultan paginados (/api/brands/{id}/prices)
+     * y su número con una consulta agregada (BrandRepository.findSummaries).
      */
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "brand")
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "brand")
     private Set<PRICES> prices = new HashSet<>();
 }
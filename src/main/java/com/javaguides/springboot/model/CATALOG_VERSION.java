@@ -0,0 +1,39 @@
+package com.javaguides.springboot.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Clase CATALOG_VERSION que representa la entidad para la tabla 'catalog_version', con una única fila que guarda la
+ * versión global del catálogo de precios.
+ *
+ * Cada escritura de precios incrementa la versión dentro de su transacción y marca con ella sus filas de PRICE_CHANGE.
+ * El bloqueo de la fila se mantiene hasta confirmar, así que las versiones se confirman en orden: un cliente que ha
+ * leído los cambios hasta la versión N no puede encontrarse después un cambio confirmado con una versión menor.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "catalog_version")
+public class CATALOG_VERSION {
+
+    /**
+     * Identificador de la única fila de la tabla.
+     */
+    public static final int SINGLETON_ID = 1;
+
+    /**
+     * Identificador de la fila (siempre SINGLETON_ID).
+     */
+    @Id
+    private int id;
+
+    /**
+     * Versión actual del catálogo de precios.
+     */
+    @Column(name = "version", nullable = false)
+    private long version;
+}
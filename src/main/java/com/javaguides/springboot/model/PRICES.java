@@ -15,14 +15,33 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "prices")
+@Table(name = "prices", indexes = {
+        @Index(name = PRICES.LOOKUP_INDEX, columnList = "brand_id, product_id, start_date, end_date, priority DESC")
+})
 public class PRICES {
 
     /**
-     * Identificador único del precio en la tabla 'prices'.
+     * Índice compuesto que sirve la consulta de precio vigente por marca, producto y fecha
+     * (PriceRepository.findByDateRequestIdProductIdBrand) y los filtros por marca y producto.
+     */
+    public static final String LOOKUP_INDEX = "idx_prices_lookup";
+
+    /**
+     * Secuencia de los identificadores de precio. Cada valor de la secuencia reserva los ID_ALLOCATION_SIZE
+     * identificadores que empiezan en él (optimizador pooled-lo), de modo que Hibernate sólo la consulta una vez cada
+     * ID_ALLOCATION_SIZE inserciones. La importación masiva reserva sus identificadores de la misma forma.
+     */
+    public static final String ID_SEQUENCE = "prices_seq";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Identificador único del precio en la tabla 'prices'. Se asigna de la secuencia antes del INSERT, lo que permite
+     * agrupar las inserciones en lotes JDBC (con IDENTITY cada INSERT tendría que devolver su clave).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private long priceId;
 
     /**
@@ -75,4 +94,20 @@ public class PRICES {
      */
     @Column(name = "curr", nullable = false)
     private String curr;
+
+    /**
+     * Clave (brandId, productId) con la que se cargó el precio desde la base de datos. No se persiste; permite
+     * saber qué clave ocupaba el precio antes de una actualización que le cambie la marca o el producto.
+     */
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private PriceKey loadedKey;
+
+    /**
+     * Guarda la clave original del precio tras cargarlo desde la base de datos.
+     */
+    @PostLoad
+    private void rememberLoadedKey() {
+        this.loadedKey = new PriceKey(brand.getId(), productId);
+    }
 }
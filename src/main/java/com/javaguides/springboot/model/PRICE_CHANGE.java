@@ -0,0 +1,48 @@
+package com.javaguides.springboot.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Clase PRICE_CHANGE que representa la entidad para la tabla 'price_changes', el registro de cambios del catálogo
+ * de precios con el que los clientes sincronizan una copia local (/api/prices/delta).
+ *
+ * El registro está compactado: guarda una sola fila por precio, con la última versión del catálogo (CATALOG_VERSION)
+ * en la que se creó, modificó o borró. Los precios borrados se conservan como lápidas (deleted = true) para que las
+ * copias locales también los borren.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "price_changes", indexes = {
+        @Index(name = PRICE_CHANGE.VERSION_INDEX, columnList = "catalog_version, price_id")
+})
+public class PRICE_CHANGE {
+
+    /**
+     * Índice que sirve la lectura de los cambios posteriores a una versión, en el orden de las páginas.
+     */
+    public static final String VERSION_INDEX = "idx_price_changes_version";
+
+    /**
+     * Identificador del precio (PRICES) cambiado. No es una clave foránea: el precio puede estar borrado.
+     */
+    @Id
+    @Column(name = "price_id")
+    private long priceId;
+
+    /**
+     * Versión del catálogo en la que cambió el precio por última vez.
+     */
+    @Column(name = "catalog_version", nullable = false)
+    private long catalogVersion;
+
+    /**
+     * Indica si el último cambio fue el borrado del precio (lápida).
+     */
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+}
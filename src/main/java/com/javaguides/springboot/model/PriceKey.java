@@ -0,0 +1,18 @@
+package com.javaguides.springboot.model;
+
+/**
+ * Clave (brandId, productId) que agrupa todas las filas de PRICES que compiten entre sí por prioridad.
+ * Es la unidad mínima que mantienen actualizada las estructuras en memoria construidas sobre los precios.
+ */
+public record PriceKey(long brandId, long productId) {
+
+    /**
+     * Obtiene la clave de un precio a partir de su marca y su producto.
+     *
+     * @param price la entidad PRICES, que debe tener marca asociada.
+     * @return PriceKey correspondiente al precio.
+     */
+    public static PriceKey of(PRICES price) {
+        return new PriceKey(price.getBrand().getId(), price.getProductId());
+    }
+}
@@ -1,10 +1,15 @@
 package com.javaguides.springboot.repository;
 
+import com.javaguides.springboot.dto.BrandSummaryDto;
 import com.javaguides.springboot.model.BRAND;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /*
  * Clase BrandRepository usada para realizar consultas en la base de datos a la tabla BRAND
@@ -12,4 +17,18 @@ import java.util.Optional;
 @Repository
 public interface BrandRepository extends JpaRepository<BRAND, Long> {
     Optional<BRAND> findById(long id);
+
+    @Query("SELECT b.id FROM BRAND b")
+    Set<Long> findAllIds();
+
+    /*
+     * Marcas con su número de precios, contados en la base de datos con un LEFT JOIN agrupado sin cargar los precios.
+     */
+    @Query("SELECT new com.javaguides.springboot.dto.BrandSummaryDto(b.id, b.name, b.description, COUNT(p)) "
+            + "FROM BRAND b LEFT JOIN b.prices p GROUP BY b.id, b.name, b.description ORDER BY b.id")
+    List<BrandSummaryDto> findSummaries();
+
+    @Query("SELECT new com.javaguides.springboot.dto.BrandSummaryDto(b.id, b.name, b.description, COUNT(p)) "
+            + "FROM BRAND b LEFT JOIN b.prices p WHERE b.id = :id GROUP BY b.id, b.name, b.description")
+    Optional<BrandSummaryDto> findSummaryById(@Param("id") long id);
 }
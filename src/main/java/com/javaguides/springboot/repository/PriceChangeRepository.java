@@ -0,0 +1,105 @@
+package com.javaguides.springboot.repository;
+
+import com.javaguides.springboot.model.PRICE_CHANGE;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/*
+ * Clase PriceChangeRepository usada para mantener el registro de cambios del catálogo (tabla PRICE_CHANGES)
+ * y su versión global (tabla CATALOG_VERSION)
+ */
+@Repository
+public interface PriceChangeRepository extends JpaRepository<PRICE_CHANGE, Long> {
+
+    /*
+     * Incrementa la versión del catálogo. Como todo UPDATE, bloquea la fila de la versión hasta el final de la
+     * transacción, de modo que las escrituras de precios se confirman en el orden de sus versiones: un cliente que ha
+     * leído los cambios hasta la versión N no puede encontrarse después un cambio confirmado con una versión menor.
+     * El precio es que las escrituras de precios se serializan en esa fila.
+     */
+    @Modifying
+    @Query("UPDATE CATALOG_VERSION v SET v.version = v.version + 1")
+    int incrementCatalogVersion();
+
+    /*
+     * Incrementa la versión del catálogo y la devuelve. La lectura se hace en la misma transacción que el incremento,
+     * con la fila ya bloqueada, así que devuelve la versión propia y no la de otra escritura concurrente.
+     */
+    default long nextCatalogVersion() {
+        incrementCatalogVersion();
+        return findCatalogVersion();
+    }
+
+    /*
+     * Registra el cambio de un precio en una versión nueva del catálogo: incrementa la versión, como nextCatalogVersion,
+     * y actualiza la fila del precio en el registro o, si todavía no la tiene (precio nuevo), la crea.
+     */
+    default void recordChange(long priceId, boolean deleted) {
+        long version = nextCatalogVersion();
+        if (updateChange(priceId, version, deleted) == 0) {
+            insertChange(priceId, version, deleted);
+        }
+    }
+
+    /*
+     * Registra en una versión nueva del catálogo un precio recién creado, que todavía no tiene fila en el registro
+     * (los identificadores de precio salen de una secuencia y no se reutilizan).
+     */
+    default void recordCreated(long priceId) {
+        insertChange(priceId, nextCatalogVersion(), false);
+    }
+
+    @Modifying
+    @Query("UPDATE PRICE_CHANGE c SET c.catalogVersion = :version, c.deleted = :deleted WHERE c.priceId = :priceId")
+    int updateChange(@Param("priceId") long priceId, @Param("version") long version, @Param("deleted") boolean deleted);
+
+    @Modifying
+    @Query("INSERT INTO PRICE_CHANGE (priceId, catalogVersion, deleted) VALUES (:priceId, :version, :deleted)")
+    int insertChange(@Param("priceId") long priceId, @Param("version") long version, @Param("deleted") boolean deleted);
+
+    /*
+     * Versión actual del catálogo.
+     */
+    @Query("SELECT v.version FROM CATALOG_VERSION v")
+    long findCatalogVersion();
+
+    /*
+     * Marca como borrados, en la versión indicada, todos los precios de una marca. Todo precio tiene su fila en el
+     * registro (los de data.sql se registran en la versión 1), por lo que basta con actualizar las existentes.
+     */
+    @Modifying
+    @Query("UPDATE PRICE_CHANGE c SET c.catalogVersion = :version, c.deleted = true "
+            + "WHERE c.priceId IN (SELECT p.priceId FROM PRICES p WHERE p.brand.id = :idBrand)")
+    int markBrandDeleted(@Param("idBrand") long idBrand, @Param("version") long version);
+
+    /*
+     * Cambios posteriores a la posición (versión, priceId), en orden de versión y precio, con el precio actual
+     * (null si está borrado). Cada fila es un array [PRICE_CHANGE, PRICES].
+     */
+    @Query("SELECT c, p FROM PRICE_CHANGE c LEFT JOIN PRICES p ON p.priceId = c.priceId "
+            + "WHERE c.catalogVersion > :version OR (c.catalogVersion = :version AND c.priceId > :afterPriceId) "
+            + "ORDER BY c.catalogVersion, c.priceId")
+    List<Object[]> findDelta(@Param("version") long version, @Param("afterPriceId") long afterPriceId, Pageable pageable);
+
+    /*
+     * Recorre todos los cambios posteriores a una versión sin cargarlos en memoria, con el mismo formato que findDelta.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PriceRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c, p FROM PRICE_CHANGE c LEFT JOIN PRICES p ON p.priceId = c.priceId "
+            + "WHERE c.catalogVersion > :version ORDER BY c.catalogVersion, c.priceId")
+    Stream<Object[]> streamDelta(@Param("version") long version);
+}
@@ -1,22 +1,137 @@
 package com.javaguides.springboot.repository;
 
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import com.javaguides.springboot.resolution.PriceEntry;
+import com.javaguides.springboot.resolution.PriceSegmentBounds;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /*
  * Clase PriceRepository usada para realizar consultas en la base de datos a la tabla PRICES
  */
 @Repository
-public interface PriceRepository extends JpaRepository<PRICES, Long> {
+public interface PriceRepository extends JpaRepository<PRICES, Long>, PriceRepositoryCustom {
+    /*
+     * Número de filas que el driver JDBC trae en cada viaje al recorrer el catálogo con streamAll.
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
     List<PRICES> findByPrice(long price);
 
-    @Query("SELECT p FROM PRICES p WHERE (:fechaApli BETWEEN p.startDate AND p.endDate) AND p.productId = :idProd AND p.brand.id = :idBrand")
+    /*
+     * Precios vigentes en la fecha para el producto y la marca, de mayor a menor prioridad. Las condiciones siguen el orden
+     * de PRICES.LOOKUP_INDEX (brand_id, product_id, start_date, end_date, priority DESC) para que se resuelva con ese índice.
+     */
+    @Query("SELECT p FROM PRICES p WHERE p.brand.id = :idBrand AND p.productId = :idProd "
+            + "AND p.startDate <= :fechaApli AND p.endDate >= :fechaApli ORDER BY p.priority DESC")
     List<PRICES> findByDateRequestIdProductIdBrand(@Param("fechaApli") LocalDateTime fechaApli,
                                                    @Param("idProd") long idProd, @Param("idBrand") long idBrand);
+
+    /*
+     * Precio vigente de mayor prioridad proyectado directamente en PriceEntry, sin crear entidades PRICES ni BRAND.
+     * A igualdad de prioridad gana el de menor priceId, como en PriceEntry.PREFERENCE.
+     * Se usa con un Pageable de tamaño 1 (ver findTopByDateRequestIdProductIdBrand) para que la base de datos devuelva una sola fila.
+     */
+    @Query("SELECT new com.javaguides.springboot.resolution.PriceEntry(p.priceId, p.brand.id, p.productId, p.startDate, "
+            + "p.endDate, p.priceList, p.priority, p.price, p.curr) "
+            + "FROM PRICES p WHERE p.brand.id = :idBrand AND p.productId = :idProd "
+            + "AND p.startDate <= :fechaApli AND p.endDate >= :fechaApli ORDER BY p.priority DESC, p.priceId")
+    List<PriceEntry> findEntriesByDateRequestIdProductIdBrand(@Param("fechaApli") LocalDateTime fechaApli,
+                                                              @Param("idProd") long idProd, @Param("idBrand") long idBrand,
+                                                              Pageable pageable);
+
+    default Optional<PriceEntry> findTopByDateRequestIdProductIdBrand(LocalDateTime fechaApli, long idProd, long idBrand) {
+        return findEntriesByDateRequestIdProductIdBrand(fechaApli, idProd, idBrand, PageRequest.ofSize(1)).stream().findFirst();
+    }
+
+    /*
+     * Límites del tramo del precio ganador (ver PriceSegmentBounds): entre los precios de la misma clave que se solapan
+     * con su vigencia [desde, hasta] y le ganan (más prioridad o, a igual prioridad, menor priceId), el último fin
+     * anterior a la fecha y el primer inicio posterior. Se calculan con agregados, sin devolver filas.
+     */
+    @Query("SELECT new com.javaguides.springboot.resolution.PriceSegmentBounds("
+            + "MAX(CASE WHEN p.endDate < :fechaApli THEN p.endDate END), "
+            + "MIN(CASE WHEN p.startDate > :fechaApli THEN p.startDate END)) "
+            + "FROM PRICES p WHERE p.brand.id = :idBrand AND p.productId = :idProd "
+            + "AND p.startDate <= :hasta AND p.endDate >= :desde "
+            + "AND (p.priority > :priority OR (p.priority = :priority AND p.priceId < :priceId))")
+    PriceSegmentBounds findSegmentBounds(@Param("fechaApli") LocalDateTime fechaApli,
+                                         @Param("idProd") long idProd, @Param("idBrand") long idBrand,
+                                         @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta,
+                                         @Param("priority") int priority, @Param("priceId") long priceId);
+
+    /*
+     * Precios de una clave que se solapan con el rango [desde, hasta], proyectados en PriceEntry sin crear entidades.
+     */
+    @Query("SELECT new com.javaguides.springboot.resolution.PriceEntry(p.priceId, p.brand.id, p.productId, p.startDate, "
+            + "p.endDate, p.priceList, p.priority, p.price, p.curr) "
+            + "FROM PRICES p WHERE p.brand.id = :idBrand AND p.productId = :idProd "
+            + "AND p.startDate <= :hasta AND p.endDate >= :desde")
+    List<PriceEntry> findEntriesByDateRangeProductIdBrand(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta,
+                                                          @Param("idProd") long idProd, @Param("idBrand") long idBrand);
+
+    @Query("SELECT p FROM PRICES p WHERE p.brand.id IN :idBrands AND p.productId IN :idProds "
+            + "AND p.startDate <= :hasta AND p.endDate >= :desde")
+    List<PRICES> findByDateRangeProductIdsBrandIds(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta,
+                                                   @Param("idProds") Collection<Long> idProds,
+                                                   @Param("idBrands") Collection<Long> idBrands);
+
+    @Query("SELECT p FROM PRICES p WHERE p.brand.id = :idBrand AND p.productId = :idProd")
+    List<PRICES> findByBrandIdProductId(@Param("idBrand") long idBrand, @Param("idProd") long idProd);
+
+    @Query("SELECT DISTINCT p.productId FROM PRICES p WHERE p.brand.id = :idBrand")
+    List<Long> findProductIdsByBrandId(@Param("idBrand") long idBrand);
+
+    /*
+     * Todos los precios de una marca, de sólo lectura. Lo usa el calentamiento para cargar el catálogo por marcas
+     * en paralelo.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM PRICES p WHERE p.brand.id = :idBrand")
+    List<PRICES> findByBrandId(@Param("idBrand") long idBrand);
+
+    /*
+     * Claves (brandId, productId) ordenadas de más a menos precios.
+     */
+    @Query("SELECT new com.javaguides.springboot.model.PriceKey(p.brand.id, p.productId) FROM PRICES p "
+            + "GROUP BY p.brand.id, p.productId ORDER BY COUNT(p) DESC, p.brand.id, p.productId")
+    List<PriceKey> findKeysOrderByPriceCount(Pageable pageable);
+
+    /*
+     * Borra en una sola sentencia todos los precios de una marca, sin cargarlos para aplicar el cascade de BRAND.prices.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PRICES p WHERE p.brand.id = :idBrand")
+    int deleteByBrandId(@Param("idBrand") long idBrand);
+
+    /*
+     * Recorre todo el catálogo de precios por orden de ID sin cargarlo entero en memoria. Debe consumirse dentro de
+     * una transacción y cerrarse al terminar; las entidades son de sólo lectura.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM PRICES p ORDER BY p.priceId")
+    Stream<PRICES> streamAll();
 }
@@ -0,0 +1,19 @@
+package com.javaguides.springboot.repository;
+
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.model.PRICES;
+
+import java.util.List;
+
+/*
+ * Consultas de PriceRepository que se construyen dinámicamente en PriceRepositoryImpl
+ */
+public interface PriceRepositoryCustom {
+
+    /*
+     * Devuelve como máximo "limit" precios con priceId mayor que "afterPriceId", ordenados por priceId (paginación por clave).
+     * Sólo se añaden a la consulta los filtros de PriceFilterDto que no son null, para que la base de datos pueda
+     * usar el índice que corresponda a cada combinación de filtros.
+     */
+    List<PRICES> findPage(PriceFilterDto filter, long afterPriceId, int limit);
+}
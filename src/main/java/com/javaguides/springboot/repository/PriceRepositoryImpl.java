@@ -0,0 +1,53 @@
+package com.javaguides.springboot.repository;
+
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.model.PRICES;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Implementación de PriceRepositoryCustom con Criteria API, que Spring Data combina con PriceRepository
+ */
+public class PriceRepositoryImpl implements PriceRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PRICES> findPage(PriceFilterDto filter, long afterPriceId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PRICES> query = cb.createQuery(PRICES.class);
+        Root<PRICES> price = query.from(PRICES.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(price.get("priceId"), afterPriceId));
+        if (filter.getBrandId() != null) {
+            predicates.add(cb.equal(price.get("brand").get("id"), filter.getBrandId()));
+        }
+        if (filter.getProductId() != null) {
+            predicates.add(cb.equal(price.get("productId"), filter.getProductId()));
+        }
+        if (filter.getPriceList() != null) {
+            predicates.add(cb.equal(price.get("priceList"), filter.getPriceList()));
+        }
+        if (filter.getActiveAt() != null) {
+            predicates.add(cb.lessThanOrEqualTo(price.get("startDate"), filter.getActiveAt()));
+            predicates.add(cb.greaterThanOrEqualTo(price.get("endDate"), filter.getActiveAt()));
+        }
+
+        query.select(price)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(price.get("priceId")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Base de los motores que guardan una estructura inmutable por clave (brandId, productId).
+ *
+ * Cada escritura reconstruye únicamente la estructura de la clave afectada y la sustituye de forma atómica,
+ * por lo que las lecturas concurrentes nunca ven una estructura a medio construir.
+ *
+ * Como el ColumnarPriceEngine con su capa de claves modificadas, load() conserva las claves que han recibido alguna
+ * escritura: sus filas son las confirmadas en la última escritura, nunca más antiguas que las del catálogo recibido,
+ * aunque éste se haya leído antes de esa escritura.
+ *
+ * @param <S> tipo de la estructura por clave.
+ */
+public abstract class AbstractKeyedPriceEngine<S> implements PriceResolutionEngine {
+
+    private final Map<PriceKey, S> structures = new ConcurrentHashMap<>();
+
+    /**
+     * Claves que han recibido alguna escritura con refresh().
+     */
+    private final Set<PriceKey> refreshed = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    /**
+     * Construye la estructura de una clave a partir de sus filas (al menos una).
+     */
+    protected abstract S build(List<PriceEntry> entries);
+
+    /**
+     * Busca en la estructura de una clave el precio vigente en la fecha.
+     */
+    protected abstract Optional<PriceEntry> lookup(S structure, LocalDateTime date);
+
+    /**
+     * Busca en la estructura de una clave el tramo de precio efectivo que contiene la fecha.
+     */
+    protected abstract Optional<PriceSegment> segment(S structure, LocalDateTime date);
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void load(Collection<PRICES> catalog) {
+        Map<PriceKey, List<PriceEntry>> byKey = catalog.stream()
+                .map(PriceEntry::of)
+                .collect(Collectors.groupingBy(PriceEntry::key));
+
+        Map<PriceKey, S> built = new ConcurrentHashMap<>();
+        byKey.forEach((key, entries) -> built.put(key, build(entries)));
+
+        for (PriceKey key : structures.keySet()) {
+            if (!built.containsKey(key)) {
+                structures.computeIfPresent(key, (k, structure) -> refreshed.contains(k) ? structure : null);
+            }
+        }
+        built.forEach((key, structure) ->
+                structures.compute(key, (k, previous) -> refreshed.contains(k) ? previous : structure));
+        ready = true;
+    }
+
+    /*
+     * La clave se marca antes de sustituir su estructura: si load() la ve sin marcar, esta sustitución es posterior a
+     * la suya (compute() es atómico por clave) y prevalece.
+     */
+    @Override
+    public void refresh(PriceKey key, Collection<PRICES> prices) {
+        refreshed.add(key);
+        if (prices.isEmpty()) {
+            structures.remove(key);
+            return;
+        }
+        S structure = build(prices.stream().map(PriceEntry::of).toList());
+        structures.compute(key, (k, previous) -> structure);
+    }
+
+    @Override
+    public Optional<PriceEntry> resolve(LocalDateTime date, long productId, long brandId) {
+        S structure = structures.get(new PriceKey(brandId, productId));
+        return structure == null ? Optional.empty() : lookup(structure, date);
+    }
+
+    @Override
+    public Optional<PriceSegment> segmentAt(LocalDateTime date, long productId, long brandId) {
+        S structure = structures.get(new PriceKey(brandId, productId));
+        return structure == null ? Optional.empty() : segment(structure, date);
+    }
+
+    /**
+     * Número de claves (brandId, productId) cargadas.
+     */
+    public int size() {
+        return structures.size();
+    }
+}
@@ -0,0 +1,272 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Motor de resolución sobre un ColumnarPriceStore: el catálogo vive en columnas primitivas fuera del heap en lugar de
+ * en millones de objetos PRICES, LocalDateTime y String.
+ *
+ * Se activa con "prices.resolution.engine=columnar". Como el almacén es inmutable, las escrituras se guardan en una capa
+ * de claves modificadas (overlay) que tiene preferencia sobre el almacén; una clave sin filas en la capa oculta las del
+ * almacén. Cuando la capa supera COMPACTION_THRESHOLD claves se reconstruye el almacén con ella y se vacía; la
+ * reconstrucción (y la escritura del snapshot) se hace en un único hilo de fondo "price-compaction-", no en el de la
+ * escritura que la dispara, y mientras dura las lecturas siguen usando la capa.
+ *
+ * Si se configura "prices.resolution.snapshot-file", al arrancar se proyecta en memoria el último snapshot del almacén
+ * y el motor responde desde ese momento, mientras la carga desde la base de datos se hace en segundo plano. El snapshot
+ * se vuelve a escribir tras cada carga que cambia el catálogo y tras cada compactación.
+ */
+@Component
+@ConditionalOnProperty(name = "prices.resolution.engine", havingValue = ColumnarPriceEngine.NAME)
+public class ColumnarPriceEngine implements PriceResolutionEngine {
+
+    public static final String NAME = "columnar";
+
+    static final int COMPACTION_THRESHOLD = 1024;
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarPriceEngine.class);
+
+    /**
+     * Almacén columnar y claves modificadas desde que se construyó, con sus precios ordenados por preferencia.
+     */
+    private record State(ColumnarPriceStore store, PersistentHashTrie<PriceKey, List<PriceEntry>> overlay) {
+    }
+
+    private final AtomicReference<State> current =
+            new AtomicReference<>(new State(ColumnarPriceStore.of(List.of()), PersistentHashTrie.empty()));
+
+    private volatile boolean ready;
+
+    /*
+     * Hilo de fondo de las compactaciones y marca de que hay una pendiente o en curso, para no encolar más de una.
+     */
+    private final ExecutorService compactor;
+
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+
+    /**
+     * Fichero de snapshot del almacén, o null si no se guarda.
+     */
+    private final Path snapshotFile;
+
+    public ColumnarPriceEngine() {
+        this("");
+    }
+
+    @Autowired
+    public ColumnarPriceEngine(@Value("${prices.resolution.snapshot-file:}") String snapshotFile) {
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("price-compaction-");
+        threadFactory.setDaemon(true);
+        this.compactor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /*
+     * Un snapshot ilegible o de otra versión del formato no impide arrancar: el motor espera a la carga desde la
+     * base de datos, que lo sobrescribe.
+     */
+    @PostConstruct
+    void mapSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            ColumnarPriceStore store = ColumnarPriceStore.map(snapshotFile);
+            current.set(new State(store, PersistentHashTrie.empty()));
+            ready = true;
+            log.info("Columnar price store mapped from {}: {} rows in {} ms",
+                    snapshotFile, store.rows(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring price catalog snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /*
+     * Se conservan las claves modificadas: cada una guarda las filas confirmadas en su última escritura, que nunca son
+     * más antiguas que las del catálogo recibido, aunque la carga se haya leído antes o después de esa escritura.
+     * Comparte el bloqueo con compact() para que una compactación en curso no publique un almacén anterior a la carga.
+     */
+    @Override
+    public synchronized void load(Collection<PRICES> catalog) {
+        ColumnarPriceStore store = ColumnarPriceStore.of(catalog.stream().map(PriceEntry::of).toList());
+        State previous = current.getAndUpdate(state -> new State(store, state.overlay()));
+        ready = true;
+        log.info("Columnar price store loaded: {} rows, {} bytes off-heap ({} bytes/row, ~{} bytes/row as entities)",
+                store.rows(), store.offHeapBytes(), ColumnarPriceStore.BYTES_PER_ROW,
+                ColumnarPriceStore.ENTITY_BYTES_PER_ROW_ESTIMATE);
+
+        if (previous.store().isMapped() && previous.store().hasSameContent(store)) {
+            log.info("Price catalog snapshot {} is up to date", snapshotFile);
+        } else {
+            writeSnapshot(store);
+        }
+    }
+
+    @Override
+    public void refresh(PriceKey key, Collection<PRICES> prices) {
+        List<PriceEntry> entries = prices.stream()
+                .map(PriceEntry::of)
+                .sorted(PriceEntry.PREFERENCE)
+                .toList();
+        State state = current.updateAndGet(s -> new State(s.store(), s.overlay().with(key, entries)));
+        if (state.overlay().size() > COMPACTION_THRESHOLD) {
+            scheduleCompaction();
+        }
+    }
+
+    /*
+     * Encola una compactación en el hilo de fondo si no hay ya una pendiente. Si durante la compactación la capa vuelve
+     * a superar el umbral, la siguiente escritura encola otra.
+     */
+    private void scheduleCompaction() {
+        if (!compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactor.execute(() -> {
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    log.warn("Columnar price store compaction failed: {}", e.getMessage(), e);
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compactionScheduled.set(false);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        compactor.shutdownNow();
+    }
+
+    /*
+     * Sin claves modificadas la consulta no crea ningún objeto hasta encontrar la fila; sólo el resultado se copia
+     * a un PriceEntry.
+     */
+    @Override
+    public Optional<PriceEntry> resolve(LocalDateTime date, long productId, long brandId) {
+        State state = current.get();
+        if (!state.overlay().isEmpty()) {
+            List<PriceEntry> entries = state.overlay().get(new PriceKey(brandId, productId));
+            if (entries != null) {
+                return entries.stream().filter(entry -> entry.contains(date)).findFirst();
+            }
+        }
+        ColumnarPriceStore store = state.store();
+        int row = store.find(date, productId, brandId);
+        return row < 0 ? Optional.empty() : Optional.of(store.toEntry(row));
+    }
+
+    /*
+     * El almacén no guarda los tramos: se construye la línea temporal de las filas de la clave sólo para esta consulta.
+     */
+    @Override
+    public Optional<PriceSegment> segmentAt(LocalDateTime date, long productId, long brandId) {
+        State state = current.get();
+        List<PriceEntry> entries = state.overlay().get(new PriceKey(brandId, productId));
+        if (entries == null) {
+            entries = state.store().entries(productId, brandId);
+        }
+        return PriceTimeline.of(entries).segmentAt(date);
+    }
+
+    /**
+     * Almacén columnar actual (sin las claves modificadas pendientes de compactar).
+     */
+    public ColumnarPriceStore store() {
+        return current.get().store();
+    }
+
+    /**
+     * Número de claves modificadas pendientes de compactar en el almacén.
+     */
+    public int overlaySize() {
+        return current.get().overlay().size();
+    }
+
+    /*
+     * Reconstruye el almacén con las filas no modificadas y las de la capa leída. Al publicar sólo se quitan de la capa
+     * las claves que no han vuelto a cambiar mientras se reconstruía, para no perder esas escrituras.
+     */
+    synchronized void compact() {
+        State base = current.get();
+        if (base.overlay().isEmpty()) {
+            return;
+        }
+        ColumnarPriceStore store = base.store();
+        PersistentHashTrie<PriceKey, List<PriceEntry>> overlay = base.overlay();
+
+        List<PriceEntry> rows = new ArrayList<>(store.rows() + overlay.size());
+        for (int row = 0; row < store.rows(); row++) {
+            if (overlay.get(new PriceKey(store.brandId(row), store.productId(row))) == null) {
+                rows.add(store.toEntry(row));
+            }
+        }
+        List<PriceKey> compactedKeys = new ArrayList<>(overlay.size());
+        overlay.forEach((key, entries) -> {
+            compactedKeys.add(key);
+            rows.addAll(entries);
+        });
+        ColumnarPriceStore compacted = ColumnarPriceStore.of(rows);
+
+        current.updateAndGet(state -> {
+            PersistentHashTrie<PriceKey, List<PriceEntry>> remaining = state.overlay();
+            for (PriceKey key : compactedKeys) {
+                if (remaining.get(key) == overlay.get(key)) {
+                    remaining = remaining.without(key);
+                }
+            }
+            return new State(compacted, remaining);
+        });
+        writeSnapshot(compacted);
+    }
+
+    private void writeSnapshot(ColumnarPriceStore store) {
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            store.write(snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not write price catalog snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.javaguides.springboot.resolution;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catálogo de precios inmutable en columnas primitivas fuera del heap, una por campo:
+ * priceId y productId long, brandId int, inicio y fin en segundos epoch (UTC) long, prioridad y tarifa int,
+ * precio en unidades menores de la moneda (céntimos) long y moneda como código short de un diccionario.
+ *
+ * Las filas se ordenan por (brandId, productId, inicio), de modo que las filas de una clave son contiguas.
+ * find() localiza la clave por búsqueda binaria y recorre sólo sus filas, sin crear objetos: devuelve el número de fila
+ * y los datos se leen con los accesores por fila. Las fechas se guardan con precisión de segundo, como las del catálogo.
+ *
+ * Todo el almacén ocupa un único buffer con el mismo formato que el fichero de snapshot (little-endian):
+ * cabecera (MAGIC, FORMAT_VERSION, filas, número de monedas y cada código como longitud short + UTF-8), relleno hasta
+ * múltiplo de 8 y las columnas una detrás de otra. write() vuelca el buffer a disco y map() lo proyecta en memoria con
+ * FileChannel.map sin copiarlo ni crear objetos por fila, por lo que un nodo puede resolver nada más arrancar.
+ * El tamaño de un buffer limita el almacén a unos 39 millones de filas.
+ */
+public final class ColumnarPriceStore {
+
+    /**
+     * Bytes por fila en las columnas: priceId 8, productId 8, inicio 8, fin 8, precio 8, brandId 4, prioridad 4,
+     * tarifa 4 y moneda 2.
+     */
+    public static final int BYTES_PER_ROW = 8 + 8 + 8 + 8 + 8 + 4 + 4 + 4 + 2;
+
+    /**
+     * Estimación de los bytes por fila en el heap de una entidad PRICES (JVM de 64 bits con compressed oops):
+     * el objeto PRICES 64, dos LocalDateTime con su LocalDate y LocalTime 2 x 72, el String de la moneda con su byte[] 48
+     * y la PriceKey de loadedKey 32. No incluye la BRAND compartida ni lo que guarda la sesión de Hibernate por entidad.
+     */
+    public static final int ENTITY_BYTES_PER_ROW_ESTIMATE = 64 + 2 * 72 + 48 + 32;
+
+    /**
+     * "PRC1" en ASCII, primeros bytes del fichero de snapshot.
+     */
+    public static final int MAGIC = 0x31435250;
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final Comparator<PriceEntry> ROW_ORDER = Comparator.comparingLong(PriceEntry::brandId)
+            .thenComparingLong(PriceEntry::productId)
+            .thenComparing(PriceEntry::startDate)
+            .thenComparingLong(PriceEntry::priceId);
+
+    private final int rows;
+
+    /**
+     * Buffer completo (cabecera y columnas), directo o proyectado desde el fichero de snapshot.
+     */
+    private final ByteBuffer data;
+
+    private final boolean mapped;
+
+    private final ByteBuffer priceIds;
+    private final ByteBuffer productIds;
+    private final ByteBuffer starts;
+    private final ByteBuffer ends;
+    private final ByteBuffer prices;
+    private final ByteBuffer brandIds;
+    private final ByteBuffer priorities;
+    private final ByteBuffer priceLists;
+    private final ByteBuffer currencies;
+
+    /**
+     * Diccionario de monedas: código ISO y factor de las unidades menores (10^decimales) de cada código short.
+     */
+    private final String[] currencyCodes;
+    private final long[] currencyFactors;
+
+    private ColumnarPriceStore(ByteBuffer data, boolean mapped, int rows, String[] currencyCodes, int columnsOffset) {
+        this.data = data;
+        this.mapped = mapped;
+        this.rows = rows;
+        this.currencyCodes = currencyCodes;
+        this.currencyFactors = new long[currencyCodes.length];
+        for (int i = 0; i < currencyCodes.length; i++) {
+            currencyFactors[i] = minorUnitFactor(currencyCodes[i]);
+        }
+
+        int offset = columnsOffset;
+        this.priceIds = column(offset, Long.BYTES);
+        this.productIds = column(offset += rows * Long.BYTES, Long.BYTES);
+        this.starts = column(offset += rows * Long.BYTES, Long.BYTES);
+        this.ends = column(offset += rows * Long.BYTES, Long.BYTES);
+        this.prices = column(offset += rows * Long.BYTES, Long.BYTES);
+        this.brandIds = column(offset += rows * Long.BYTES, Integer.BYTES);
+        this.priorities = column(offset += rows * Integer.BYTES, Integer.BYTES);
+        this.priceLists = column(offset += rows * Integer.BYTES, Integer.BYTES);
+        this.currencies = column(offset + rows * Integer.BYTES, Short.BYTES);
+    }
+
+    /**
+     * Construye el almacén con las filas recibidas en un buffer directo.
+     */
+    public static ColumnarPriceStore of(Collection<PriceEntry> entries) {
+        List<PriceEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(ROW_ORDER);
+
+        Map<String, Short> dictionary = new LinkedHashMap<>();
+        for (PriceEntry entry : sorted) {
+            if (entry.brandId() < 0 || entry.brandId() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("brandId out of int range: " + entry.brandId());
+            }
+            if (!dictionary.containsKey(entry.curr())) {
+                if (dictionary.size() > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Too many currencies");
+                }
+                dictionary.put(entry.curr(), (short) dictionary.size());
+            }
+        }
+        String[] codes = dictionary.keySet().toArray(String[]::new);
+
+        int headerBytes = HEADER_BYTES;
+        for (String code : codes) {
+            headerBytes += Short.BYTES + code.getBytes(StandardCharsets.UTF_8).length;
+        }
+        int columnsOffset = align(headerBytes);
+        ByteBuffer data = ByteBuffer.allocateDirect(Math.toIntExact(columnsOffset + (long) sorted.size() * BYTES_PER_ROW))
+                .order(ORDER);
+        data.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(sorted.size()).putInt(codes.length);
+        for (String code : codes) {
+            byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+            data.putShort((short) bytes.length).put(bytes);
+        }
+
+        ColumnarPriceStore store = new ColumnarPriceStore(data, false, sorted.size(), codes, columnsOffset);
+        for (int row = 0; row < sorted.size(); row++) {
+            PriceEntry entry = sorted.get(row);
+            store.put(row, entry, dictionary.get(entry.curr()));
+        }
+        return store;
+    }
+
+    /**
+     * Proyecta en memoria (sólo lectura) un snapshot escrito con write(). El contenido no se copia: las páginas
+     * se leen del disco según se consultan.
+     *
+     * @throws IllegalArgumentException si el fichero no es un snapshot válido de esta versión del formato.
+     */
+    public static ColumnarPriceStore map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Snapshot too large: " + size + " bytes");
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), true);
+        }
+    }
+
+    /**
+     * Lee un almacén con el formato del snapshot desde un buffer, sin copiarlo.
+     *
+     * @throws IllegalArgumentException si el buffer no es un snapshot válido de esta versión del formato.
+     */
+    public static ColumnarPriceStore read(ByteBuffer buffer) {
+        return read(buffer, false);
+    }
+
+    private static ColumnarPriceStore read(ByteBuffer buffer, boolean mapped) {
+        ByteBuffer data = buffer.duplicate().clear().order(ORDER);
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a price catalog snapshot");
+        }
+        if (data.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot format version: " + data.getInt(4));
+        }
+        int rows = data.getInt(8);
+        int currencyCount = data.getInt(12);
+        if (rows < 0 || currencyCount < 0 || currencyCount > Short.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("Corrupt snapshot header");
+        }
+
+        String[] codes = new String[currencyCount];
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < currencyCount; i++) {
+            if (offset + Short.BYTES > data.capacity()) {
+                throw new IllegalArgumentException("Truncated snapshot");
+            }
+            int length = Short.toUnsignedInt(data.getShort(offset));
+            if (offset + Short.BYTES + length > data.capacity()) {
+                throw new IllegalArgumentException("Truncated snapshot");
+            }
+            byte[] bytes = new byte[length];
+            data.get(offset + Short.BYTES, bytes);
+            codes[i] = new String(bytes, StandardCharsets.UTF_8);
+            offset += Short.BYTES + length;
+        }
+
+        int columnsOffset = align(offset);
+        if (data.capacity() != columnsOffset + (long) rows * BYTES_PER_ROW) {
+            throw new IllegalArgumentException("Snapshot size does not match its header");
+        }
+        return new ColumnarPriceStore(data, mapped, rows, codes, columnsOffset);
+    }
+
+    /**
+     * Escribe el almacén en el fichero con el formato de snapshot. Se escribe en un fichero temporal del mismo
+     * directorio que después se renombra, de modo que quien lea el fichero nunca ve un snapshot a medio escribir.
+     */
+    public void write(Path file) throws IOException {
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer source = data.duplicate().clear();
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Indica si los dos almacenes tienen exactamente el mismo contenido (mismo snapshot).
+     */
+    public boolean hasSameContent(ColumnarPriceStore other) {
+        return data.duplicate().clear().equals(other.data.duplicate().clear());
+    }
+
+    /**
+     * Fila del precio de mayor prioridad vigente en la fecha para el producto y la marca, o -1 si no hay.
+     */
+    public int find(LocalDateTime date, long productId, long brandId) {
+        return find(date.toEpochSecond(ZoneOffset.UTC), date.getNano(), productId, brandId);
+    }
+
+    /**
+     * Igual que find(LocalDateTime, long, long) con la fecha en segundos epoch (UTC) y nanosegundos.
+     * Ambos extremos de la vigencia se incluyen, como en la consulta a la base de datos.
+     */
+    public int find(long epochSecond, int nano, long productId, long brandId) {
+        if (brandId < 0 || brandId > Integer.MAX_VALUE) {
+            return -1;
+        }
+        int best = -1;
+        for (int row = firstRow((int) brandId, productId); row < rows && isKey(row, (int) brandId, productId); row++) {
+            long start = starts.getLong(row * Long.BYTES);
+            if (start > epochSecond) {
+                break;
+            }
+            long end = ends.getLong(row * Long.BYTES);
+            if ((epochSecond < end || (epochSecond == end && nano == 0)) && (best < 0 || beats(row, best))) {
+                best = row;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Filas del producto y la marca, ordenadas por fecha de inicio.
+     */
+    public List<PriceEntry> entries(long productId, long brandId) {
+        if (brandId < 0 || brandId > Integer.MAX_VALUE) {
+            return List.of();
+        }
+        List<PriceEntry> entries = new ArrayList<>();
+        for (int row = firstRow((int) brandId, productId); row < rows && isKey(row, (int) brandId, productId); row++) {
+            entries.add(toEntry(row));
+        }
+        return entries;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public long priceId(int row) {
+        return priceIds.getLong(row * Long.BYTES);
+    }
+
+    public long productId(int row) {
+        return productIds.getLong(row * Long.BYTES);
+    }
+
+    public long brandId(int row) {
+        return brandIds.getInt(row * Integer.BYTES);
+    }
+
+    public long startEpochSecond(int row) {
+        return starts.getLong(row * Long.BYTES);
+    }
+
+    public long endEpochSecond(int row) {
+        return ends.getLong(row * Long.BYTES);
+    }
+
+    public int priority(int row) {
+        return priorities.getInt(row * Integer.BYTES);
+    }
+
+    public int priceList(int row) {
+        return priceLists.getInt(row * Integer.BYTES);
+    }
+
+    /**
+     * Precio en unidades menores de su moneda (por ejemplo céntimos de euro).
+     */
+    public long priceMinor(int row) {
+        return prices.getLong(row * Long.BYTES);
+    }
+
+    public double price(int row) {
+        return (double) priceMinor(row) / currencyFactors[currencies.getShort(row * Short.BYTES)];
+    }
+
+    public String currency(int row) {
+        return currencyCodes[currencies.getShort(row * Short.BYTES)];
+    }
+
+    /**
+     * Copia de la fila como PriceEntry (crea objetos; para la API de PriceResolutionEngine).
+     */
+    public PriceEntry toEntry(int row) {
+        return new PriceEntry(priceId(row), brandId(row), productId(row),
+                LocalDateTime.ofEpochSecond(startEpochSecond(row), 0, ZoneOffset.UTC),
+                LocalDateTime.ofEpochSecond(endEpochSecond(row), 0, ZoneOffset.UTC),
+                priceList(row), priority(row), price(row), currency(row));
+    }
+
+    /**
+     * Bytes ocupados fuera del heap por las columnas.
+     */
+    public long offHeapBytes() {
+        return (long) rows * BYTES_PER_ROW;
+    }
+
+    /**
+     * Indica si el almacén está proyectado desde un fichero de snapshot.
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /*
+     * Primera fila cuya clave (brandId, productId) es mayor o igual que la buscada.
+     */
+    private int firstRow(int brandId, long productId) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int brand = brandIds.getInt(mid * Integer.BYTES);
+            if (brand < brandId || (brand == brandId && productIds.getLong(mid * Long.BYTES) < productId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isKey(int row, int brandId, long productId) {
+        return brandIds.getInt(row * Integer.BYTES) == brandId && productIds.getLong(row * Long.BYTES) == productId;
+    }
+
+    /*
+     * Mismo orden que PriceEntry.PREFERENCE: mayor prioridad y, a igualdad, menor priceId.
+     */
+    private boolean beats(int row, int other) {
+        int priority = priority(row);
+        int otherPriority = priority(other);
+        return priority > otherPriority || (priority == otherPriority && priceId(row) < priceId(other));
+    }
+
+    private void put(int row, PriceEntry entry, short currency) {
+        priceIds.putLong(row * Long.BYTES, entry.priceId());
+        productIds.putLong(row * Long.BYTES, entry.productId());
+        starts.putLong(row * Long.BYTES, entry.startDate().toEpochSecond(ZoneOffset.UTC));
+        ends.putLong(row * Long.BYTES, entry.endDate().toEpochSecond(ZoneOffset.UTC));
+        prices.putLong(row * Long.BYTES, Math.round(entry.price() * currencyFactors[currency]));
+        brandIds.putInt(row * Integer.BYTES, (int) entry.brandId());
+        priorities.putInt(row * Integer.BYTES, entry.priority());
+        priceLists.putInt(row * Integer.BYTES, entry.priceList());
+        currencies.putShort(row * Short.BYTES, currency);
+    }
+
+    private ByteBuffer column(int offset, int width) {
+        return data.slice(offset, rows * width).order(ORDER);
+    }
+
+    private static int align(int offset) {
+        return (offset + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    private static long minorUnitFactor(String code) {
+        int digits;
+        try {
+            digits = Math.max(Currency.getInstance(code).getDefaultFractionDigits(), 0);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            digits = 2;
+        }
+        long factor = 1;
+        for (int i = 0; i < digits; i++) {
+            factor *= 10;
+        }
+        return factor;
+    }
+}
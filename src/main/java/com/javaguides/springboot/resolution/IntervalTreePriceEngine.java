@@ -0,0 +1,43 @@
+package com.javaguides.springboot.resolution;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Motor de resolución que mantiene un PriceIntervalTree por clave (brandId, productId).
+ *
+ * Se activa con "prices.resolution.engine=interval-tree".
+ */
+@Component
+@ConditionalOnProperty(name = "prices.resolution.engine", havingValue = IntervalTreePriceEngine.NAME)
+public class IntervalTreePriceEngine extends AbstractKeyedPriceEngine<PriceIntervalTree> {
+
+    public static final String NAME = "interval-tree";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    protected PriceIntervalTree build(List<PriceEntry> entries) {
+        return PriceIntervalTree.of(entries);
+    }
+
+    @Override
+    protected Optional<PriceEntry> lookup(PriceIntervalTree tree, LocalDateTime date) {
+        return tree.stab(date);
+    }
+
+    /*
+     * El árbol no guarda los tramos: se construye la línea temporal de las filas de la clave sólo para esta consulta.
+     */
+    @Override
+    protected Optional<PriceSegment> segment(PriceIntervalTree tree, LocalDateTime date) {
+        return PriceTimeline.of(tree.entries()).segmentAt(date);
+    }
+}
@@ -0,0 +1,275 @@
+package com.javaguides.springboot.resolution;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Mapa inmutable persistente (hash array mapped trie de 32 ramas).
+ *
+ * with() y without() devuelven un mapa nuevo que comparte con el anterior todos los nodos salvo los del camino
+ * de la clave modificada (como mucho 7 nodos), por lo que una escritura copia O(log32 n) referencias en lugar
+ * del mapa completo y las versiones anteriores siguen siendo válidas para quien las esté leyendo.
+ *
+ * @param <K> tipo de las claves (con equals/hashCode).
+ * @param <V> tipo de los valores.
+ */
+public final class PersistentHashTrie<K, V> {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashTrie<?, ?> EMPTY = new PersistentHashTrie<>(new BitmapNode(0, new Object[0]), 0);
+
+    /**
+     * Nodo interno: bitmap de las 32 ramas ocupadas y array compacto con sus hijos (Leaf, BitmapNode o CollisionNode).
+     */
+    private record BitmapNode(int bitmap, Object[] children) {
+    }
+
+    /**
+     * Claves distintas con el mismo hash completo.
+     */
+    private record CollisionNode(int hash, Leaf[] leaves) {
+    }
+
+    private record Leaf(int hash, Object key, Object value) {
+    }
+
+    private final BitmapNode root;
+
+    private final int size;
+
+    private PersistentHashTrie(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashTrie<K, V> empty() {
+        return (PersistentHashTrie<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Valor de la clave, o null si no está en el mapa.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int hash = hash(key);
+        Object node = root;
+        int shift = 0;
+        while (true) {
+            if (node instanceof BitmapNode bitmapNode) {
+                int bit = bit(hash, shift);
+                if ((bitmapNode.bitmap() & bit) == 0) {
+                    return null;
+                }
+                node = bitmapNode.children()[index(bitmapNode.bitmap(), bit)];
+                shift += BITS;
+            } else if (node instanceof Leaf leaf) {
+                return leaf.hash() == hash && leaf.key().equals(key) ? (V) leaf.value() : null;
+            } else {
+                for (Leaf leaf : ((CollisionNode) node).leaves()) {
+                    if (leaf.key().equals(key)) {
+                        return (V) leaf.value();
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Mapa con la clave asociada al valor (añadida o sustituida).
+     */
+    public PersistentHashTrie<K, V> with(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        boolean[] added = new boolean[1];
+        BitmapNode newRoot = (BitmapNode) insert(root, 0, new Leaf(hash(key), key, value), added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashTrie<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Mapa sin la clave. Si la clave no estaba devuelve el mismo mapa.
+     */
+    public PersistentHashTrie<K, V> without(K key) {
+        Object newRoot = remove(root, 0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentHashTrie<>((BitmapNode) newRoot, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, (BiConsumer<Object, Object>) action);
+    }
+
+    private static Object insert(Object node, int shift, Leaf leaf, boolean[] added) {
+        if (node instanceof BitmapNode bitmapNode) {
+            int bit = bit(leaf.hash(), shift);
+            int index = index(bitmapNode.bitmap(), bit);
+            Object[] children = bitmapNode.children();
+            if ((bitmapNode.bitmap() & bit) == 0) {
+                added[0] = true;
+                Object[] newChildren = new Object[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newChildren[index] = leaf;
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                return new BitmapNode(bitmapNode.bitmap() | bit, newChildren);
+            }
+            Object child = children[index];
+            Object newChild = insert(child, shift + BITS, leaf, added);
+            if (newChild == child) {
+                return bitmapNode;
+            }
+            Object[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            return new BitmapNode(bitmapNode.bitmap(), newChildren);
+        }
+
+        if (node instanceof Leaf existing) {
+            if (existing.hash() == leaf.hash() && existing.key().equals(leaf.key())) {
+                return existing.value() == leaf.value() ? existing : leaf;
+            }
+            added[0] = true;
+            return split(existing, existing.hash(), leaf, shift);
+        }
+
+        CollisionNode collision = (CollisionNode) node;
+        if (collision.hash() != leaf.hash()) {
+            added[0] = true;
+            return split(collision, collision.hash(), leaf, shift);
+        }
+        Leaf[] leaves = collision.leaves();
+        for (int i = 0; i < leaves.length; i++) {
+            if (leaves[i].key().equals(leaf.key())) {
+                if (leaves[i].value() == leaf.value()) {
+                    return collision;
+                }
+                Leaf[] newLeaves = leaves.clone();
+                newLeaves[i] = leaf;
+                return new CollisionNode(collision.hash(), newLeaves);
+            }
+        }
+        added[0] = true;
+        Leaf[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+        newLeaves[leaves.length] = leaf;
+        return new CollisionNode(collision.hash(), newLeaves);
+    }
+
+    /*
+     * Nodo con una entrada existente (Leaf o CollisionNode) y una hoja nueva que llegan a la misma rama.
+     * Si el hash completo coincide es una colisión; si no, se separan en el primer tramo de 5 bits distinto.
+     */
+    private static Object split(Object existing, int existingHash, Leaf leaf, int shift) {
+        if (existingHash == leaf.hash()) {
+            return new CollisionNode(existingHash, new Leaf[]{(Leaf) existing, leaf});
+        }
+        int existingBit = bit(existingHash, shift);
+        int leafBit = bit(leaf.hash(), shift);
+        if (existingBit == leafBit) {
+            return new BitmapNode(existingBit, new Object[]{split(existing, existingHash, leaf, shift + BITS)});
+        }
+        Object[] children = Integer.compareUnsigned(existingBit, leafBit) < 0
+                ? new Object[]{existing, leaf}
+                : new Object[]{leaf, existing};
+        return new BitmapNode(existingBit | leafBit, children);
+    }
+
+    /*
+     * Devuelve el nodo sin la clave, el mismo nodo si no estaba o null si el nodo se queda vacío.
+     * Un BitmapNode que se queda con una sola hoja se sustituye por la hoja para no dejar caminos largos.
+     */
+    private static Object remove(Object node, int shift, int hash, Object key) {
+        if (node instanceof BitmapNode bitmapNode) {
+            int bit = bit(hash, shift);
+            if ((bitmapNode.bitmap() & bit) == 0) {
+                return bitmapNode;
+            }
+            int index = index(bitmapNode.bitmap(), bit);
+            Object[] children = bitmapNode.children();
+            Object child = children[index];
+            Object newChild = remove(child, shift + BITS, hash, key);
+            if (newChild == child) {
+                return bitmapNode;
+            }
+            if (newChild == null) {
+                if (children.length == 1) {
+                    return shift == 0 ? new BitmapNode(0, new Object[0]) : null;
+                }
+                Object[] newChildren = new Object[children.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                if (shift > 0 && newChildren.length == 1 && !(newChildren[0] instanceof BitmapNode)) {
+                    return newChildren[0];
+                }
+                return new BitmapNode(bitmapNode.bitmap() & ~bit, newChildren);
+            }
+            if (shift > 0 && children.length == 1 && !(newChild instanceof BitmapNode)) {
+                return newChild;
+            }
+            Object[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            return new BitmapNode(bitmapNode.bitmap(), newChildren);
+        }
+
+        if (node instanceof Leaf leaf) {
+            return leaf.hash() == hash && leaf.key().equals(key) ? null : leaf;
+        }
+
+        CollisionNode collision = (CollisionNode) node;
+        Leaf[] leaves = collision.leaves();
+        for (int i = 0; i < leaves.length; i++) {
+            if (leaves[i].key().equals(key)) {
+                if (leaves.length == 2) {
+                    return leaves[1 - i];
+                }
+                Leaf[] newLeaves = new Leaf[leaves.length - 1];
+                System.arraycopy(leaves, 0, newLeaves, 0, i);
+                System.arraycopy(leaves, i + 1, newLeaves, i, leaves.length - i - 1);
+                return new CollisionNode(collision.hash(), newLeaves);
+            }
+        }
+        return collision;
+    }
+
+    private static void forEach(Object node, BiConsumer<Object, Object> action) {
+        if (node instanceof BitmapNode bitmapNode) {
+            for (Object child : bitmapNode.children()) {
+                forEach(child, action);
+            }
+        } else if (node instanceof Leaf leaf) {
+            action.accept(leaf.key(), leaf.value());
+        } else {
+            for (Leaf leaf : ((CollisionNode) node).leaves()) {
+                action.accept(leaf.key(), leaf.value());
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+}
@@ -0,0 +1,91 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Versión inmutable del catálogo de precios: una PriceTimeline por clave (brandId, productId) en un PersistentHashTrie.
+ *
+ * Cada escritura produce una versión nueva con withKey(), que comparte con la anterior todas las claves no modificadas.
+ * Quien tenga una referencia a una versión puede seguir resolviendo contra ella sin bloqueos aunque haya versiones más
+ * nuevas.
+ */
+public final class PriceCatalogSnapshot {
+
+    public static final PriceCatalogSnapshot EMPTY = new PriceCatalogSnapshot(0, PersistentHashTrie.empty());
+
+    private final long version;
+
+    private final PersistentHashTrie<PriceKey, PriceTimeline> timelines;
+
+    private PriceCatalogSnapshot(long version, PersistentHashTrie<PriceKey, PriceTimeline> timelines) {
+        this.version = version;
+        this.timelines = timelines;
+    }
+
+    /**
+     * Versión construida con el catálogo completo.
+     */
+    public static PriceCatalogSnapshot of(long version, Collection<PRICES> catalog) {
+        Map<PriceKey, List<PriceEntry>> byKey = catalog.stream()
+                .map(PriceEntry::of)
+                .collect(Collectors.groupingBy(PriceEntry::key));
+
+        PersistentHashTrie<PriceKey, PriceTimeline> timelines = PersistentHashTrie.empty();
+        for (Map.Entry<PriceKey, List<PriceEntry>> entry : byKey.entrySet()) {
+            timelines = timelines.with(entry.getKey(), PriceTimeline.of(entry.getValue()));
+        }
+        return new PriceCatalogSnapshot(version, timelines);
+    }
+
+    /**
+     * Versión siguiente con las filas de una clave sustituidas por las recibidas (vacía elimina la clave).
+     */
+    public PriceCatalogSnapshot withKey(PriceKey key, Collection<PRICES> prices) {
+        PersistentHashTrie<PriceKey, PriceTimeline> next = prices.isEmpty()
+                ? timelines.without(key)
+                : timelines.with(key, PriceTimeline.of(prices.stream().map(PriceEntry::of).toList()));
+        return new PriceCatalogSnapshot(version + 1, next);
+    }
+
+    /**
+     * Versión siguiente a previous con las claves de esta, salvo las recibidas en keys, que conservan su línea temporal
+     * de previous (o su ausencia).
+     */
+    public PriceCatalogSnapshot keeping(PriceCatalogSnapshot previous, Collection<PriceKey> keys) {
+        PersistentHashTrie<PriceKey, PriceTimeline> next = timelines;
+        for (PriceKey key : keys) {
+            PriceTimeline timeline = previous.timelines.get(key);
+            next = timeline == null ? next.without(key) : next.with(key, timeline);
+        }
+        return new PriceCatalogSnapshot(previous.version + 1, next);
+    }
+
+    public Optional<PriceEntry> resolve(LocalDateTime date, long productId, long brandId) {
+        PriceTimeline timeline = timelines.get(new PriceKey(brandId, productId));
+        return timeline == null ? Optional.empty() : timeline.priceAt(date);
+    }
+
+    public Optional<PriceSegment> segmentAt(LocalDateTime date, long productId, long brandId) {
+        PriceTimeline timeline = timelines.get(new PriceKey(brandId, productId));
+        return timeline == null ? Optional.empty() : timeline.segmentAt(date);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Número de claves (brandId, productId) de esta versión.
+     */
+    public int size() {
+        return timelines.size();
+    }
+}
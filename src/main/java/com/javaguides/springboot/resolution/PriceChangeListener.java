@@ -0,0 +1,86 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.event.PriceChangeEvent;
+import com.javaguides.springboot.model.PriceKey;
+import com.javaguides.springboot.repository.PriceRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mantiene al día el motor de resolución y la caché de precios resueltos con los eventos de cambio de precios.
+ *
+ * Sólo recibe los eventos de escrituras confirmadas: por cada clave afectada vuelve a cargar sus filas en el motor,
+ * sin recargar el catálogo completo, e invalida exactamente sus entradas de la caché. La importación masiva publica un
+ * evento por bloque dentro de la transacción del bloque, que se recibe en cuanto ese bloque se confirma; los eventos
+ * publicados fuera de una transacción se reciben en el momento.
+ *
+ * Lleva además la cuenta de las escrituras publicadas que todavía no se han aplicado (hasPendingChanges()): entre la
+ * confirmación de una escritura y su refresco, el motor y la caché pueden responder con precios anteriores a la versión
+ * del catálogo que ya se lee de la base de datos.
+ */
+@Component
+public class PriceChangeListener {
+
+    private final ObjectProvider<PriceResolutionEngine> engineProvider;
+
+    private final ObjectProvider<ResolvedPriceCache> cacheProvider;
+
+    private final PriceRepository priceRepository;
+
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+
+    public PriceChangeListener(ObjectProvider<PriceResolutionEngine> engineProvider,
+                               ObjectProvider<ResolvedPriceCache> cacheProvider,
+                               PriceRepository priceRepository) {
+        this.engineProvider = engineProvider;
+        this.cacheProvider = cacheProvider;
+        this.priceRepository = priceRepository;
+    }
+
+    /*
+     * Se cuenta al publicarse, dentro de la transacción de la escritura y por tanto antes de que se confirme.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onPriceChangePublished(PriceChangeEvent event) {
+        pendingChanges.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChange(PriceChangeEvent event) {
+        try {
+            PriceResolutionEngine engine = engineProvider.getIfAvailable();
+            ResolvedPriceCache cache = cacheProvider.getIfAvailable();
+            for (PriceKey key : event.affectedKeys()) {
+                if (engine != null) {
+                    engine.refresh(key, priceRepository.findByBrandIdProductId(key.brandId(), key.productId()));
+                }
+                if (cache != null) {
+                    cache.invalidate(key);
+                }
+            }
+        } finally {
+            pendingChanges.decrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onPriceChangeRolledBack(PriceChangeEvent event) {
+        pendingChanges.decrementAndGet();
+    }
+
+    /**
+     * Indica si hay escrituras publicadas que aún no se han aplicado al motor y a la caché. Si no las hay, toda versión
+     * del catálogo leída antes de llamar está ya reflejada en ellos.
+     */
+    public boolean hasPendingChanges() {
+        return pendingChanges.get() > 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Copia inmutable y ligera de una fila de PRICES, usada por los motores de resolución en memoria.
+ * No mantiene referencias a la sesión de Hibernate ni a la entidad BRAND, sólo a su identificador.
+ */
+public record PriceEntry(long priceId, long brandId, long productId, LocalDateTime startDate, LocalDateTime endDate,
+                         int priceList, int priority, double price, String curr) {
+
+    /**
+     * Orden de preferencia entre precios solapados: mayor prioridad primero y, a igualdad de prioridad,
+     * el de menor priceId, que es el que devuelve la consulta original al recorrer la lista.
+     */
+    public static final Comparator<PriceEntry> PREFERENCE = Comparator.comparingInt(PriceEntry::priority).reversed()
+            .thenComparingLong(PriceEntry::priceId);
+
+    /**
+     * Crea la copia a partir de la entidad PRICES.
+     *
+     * @param price la entidad PRICES, que debe tener marca asociada.
+     * @return PriceEntry con los mismos datos.
+     */
+    public static PriceEntry of(PRICES price) {
+        return new PriceEntry(price.getPriceId(), price.getBrand().getId(), price.getProductId(),
+                price.getStartDate(), price.getEndDate(), price.getPriceList(), price.getPriority(),
+                price.getPrice(), price.getCurr());
+    }
+
+    /**
+     * Clave (brandId, productId) a la que pertenece la fila.
+     */
+    public PriceKey key() {
+        return new PriceKey(brandId, productId);
+    }
+
+    /**
+     * Indica si la fecha está dentro de la vigencia del precio, con ambos extremos incluidos (BETWEEN).
+     */
+    public boolean contains(LocalDateTime date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    /**
+     * Devuelve true si este precio gana a otro que se solapa con él.
+     */
+    public boolean beats(PriceEntry other) {
+        return other == null || PREFERENCE.compare(this, other) < 0;
+    }
+
+    /**
+     * Reconstruye una entidad PRICES (no gestionada por JPA) con una referencia a la marca sólo por su ID.
+     */
+    public PRICES toPrices() {
+        return PRICES.builder()
+                .priceId(priceId)
+                .brand(BRAND.builder().id(brandId).build())
+                .startDate(startDate)
+                .endDate(endDate)
+                .priceList(priceList)
+                .productId(productId)
+                .priority(priority)
+                .price(price)
+                .curr(curr)
+                .build();
+    }
+}
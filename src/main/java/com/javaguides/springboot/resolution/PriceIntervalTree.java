@@ -0,0 +1,121 @@
+package com.javaguides.springboot.resolution;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Árbol de intervalos centrado e inmutable con las filas de PRICES de una clave (brandId, productId).
+ *
+ * Cada nodo guarda los intervalos que contienen su punto central, ordenados por inicio ascendente y por fin
+ * descendente; el resto se reparte entre los subárboles izquierdo y derecho. Una consulta puntual baja por una
+ * única rama, de modo que cuesta O(log n + k), siendo k el número de precios solapados en la fecha.
+ */
+public final class PriceIntervalTree {
+
+    private final Node root;
+
+    private final List<PriceEntry> entries;
+
+    private PriceIntervalTree(Node root, List<PriceEntry> entries) {
+        this.root = root;
+        this.entries = entries;
+    }
+
+    /**
+     * Construye el árbol a partir de las filas de una clave.
+     */
+    public static PriceIntervalTree of(List<PriceEntry> entries) {
+        return new PriceIntervalTree(build(entries), List.copyOf(entries));
+    }
+
+    /**
+     * Devuelve el precio de mayor prioridad cuya vigencia contiene la fecha.
+     */
+    public Optional<PriceEntry> stab(LocalDateTime date) {
+        PriceEntry best = null;
+        Node node = root;
+
+        while (node != null) {
+            int cmp = date.compareTo(node.center);
+            if (cmp < 0) {
+                for (PriceEntry entry : node.byStart) {
+                    if (entry.startDate().isAfter(date)) {
+                        break;
+                    }
+                    best = entry.beats(best) ? entry : best;
+                }
+                node = node.left;
+            } else if (cmp > 0) {
+                for (PriceEntry entry : node.byEndDesc) {
+                    if (entry.endDate().isBefore(date)) {
+                        break;
+                    }
+                    best = entry.beats(best) ? entry : best;
+                }
+                node = node.right;
+            } else {
+                for (PriceEntry entry : node.byStart) {
+                    best = entry.beats(best) ? entry : best;
+                }
+                node = null;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Número de filas que contiene el árbol.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Filas con las que se construyó el árbol.
+     */
+    public List<PriceEntry> entries() {
+        return entries;
+    }
+
+    private static Node build(List<PriceEntry> entries) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        // El centro es la mediana de todos los extremos, lo que mantiene el árbol equilibrado
+        List<LocalDateTime> endpoints = new ArrayList<>(entries.size() * 2);
+        for (PriceEntry entry : entries) {
+            endpoints.add(entry.startDate());
+            endpoints.add(entry.endDate());
+        }
+        endpoints.sort(Comparator.naturalOrder());
+        LocalDateTime center = endpoints.get(endpoints.size() / 2);
+
+        List<PriceEntry> left = new ArrayList<>();
+        List<PriceEntry> right = new ArrayList<>();
+        List<PriceEntry> overlapping = new ArrayList<>();
+        for (PriceEntry entry : entries) {
+            if (entry.endDate().isBefore(center)) {
+                left.add(entry);
+            } else if (entry.startDate().isAfter(center)) {
+                right.add(entry);
+            } else {
+                overlapping.add(entry);
+            }
+        }
+
+        List<PriceEntry> byStart = new ArrayList<>(overlapping);
+        byStart.sort(Comparator.comparing(PriceEntry::startDate));
+        List<PriceEntry> byEndDesc = new ArrayList<>(overlapping);
+        byEndDesc.sort(Comparator.comparing(PriceEntry::endDate).reversed());
+
+        return new Node(center, List.copyOf(byStart), List.copyOf(byEndDesc), build(left), build(right));
+    }
+
+    private record Node(LocalDateTime center, List<PriceEntry> byStart, List<PriceEntry> byEndDesc,
+                        Node left, Node right) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Motor de resolución de precios en memoria, alternativo a la consulta PriceRepository.findByDateRequestIdProductIdBrand.
+ *
+ * Se activa con la propiedad "prices.resolution.engine". Mientras no esté cargado (isReady() == false), el servicio
+ * sigue resolviendo contra la base de datos.
+ */
+public interface PriceResolutionEngine {
+
+    /**
+     * Nombre del motor, el mismo valor que se usa en la propiedad "prices.resolution.engine".
+     */
+    String name();
+
+    /**
+     * Indica si el motor tiene el catálogo cargado y puede responder consultas.
+     */
+    boolean isReady();
+
+    /**
+     * Indica si las consultas del hilo actual ven la última versión publicada en el motor. Sólo el motor "snapshot"
+     * puede resolver con una versión anterior, la fijada para la petición en curso.
+     */
+    default boolean isCurrent() {
+        return true;
+    }
+
+    /**
+     * Sustituye el contenido completo del motor por el catálogo recibido y lo marca como listo.
+     */
+    void load(Collection<PRICES> catalog);
+
+    /**
+     * Sustituye las filas de una única clave (brandId, productId) por las recibidas.
+     * Una colección vacía elimina la clave del motor.
+     */
+    void refresh(PriceKey key, Collection<PRICES> prices);
+
+    /**
+     * Devuelve el precio de mayor prioridad vigente en la fecha para el producto y la marca dados.
+     */
+    Optional<PriceEntry> resolve(LocalDateTime date, long productId, long brandId);
+
+    /**
+     * Devuelve el tramo de la línea temporal de precios efectivos que contiene la fecha para el producto y la marca:
+     * el mismo precio que resolve() y el intervalo en el que sigue siendo el aplicable.
+     */
+    Optional<PriceSegment> segmentAt(LocalDateTime date, long productId, long brandId);
+}
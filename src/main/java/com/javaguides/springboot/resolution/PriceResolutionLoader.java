@@ -0,0 +1,204 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import com.javaguides.springboot.repository.BrandRepository;
+import com.javaguides.springboot.repository.PriceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Calentamiento del servicio de precios una vez arrancada la aplicación, cuando data.sql ya se ha ejecutado.
+ *
+ * En un hilo aparte carga el catálogo por particiones de marca en paralelo (como mucho "prices.warmup.parallelism"
+ * a la vez), lo carga en el motor de resolución configurado y resuelve el precio vigente "ahora" de los
+ * "prices.warmup.hot-products" productos con más precios, llenando la caché de precios resueltos. Mientras tanto el
+ * servicio resuelve contra la base de datos (o con el snapshot del motor, si lo tiene) y la sonda de readiness
+ * (PriceWarmupHealthIndicator) no está UP salvo que el motor ya esté listo con su snapshot. Las escrituras confirmadas
+ * durante la carga no se pierden: el motor conserva en load() las claves que ha recibido con refresh().
+ */
+@Component
+public class PriceResolutionLoader {
+
+    /**
+     * Estado del calentamiento.
+     */
+    public enum WarmupStatus { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private static final Logger log = LoggerFactory.getLogger(PriceResolutionLoader.class);
+
+    private final ObjectProvider<PriceResolutionEngine> engineProvider;
+
+    private final ObjectProvider<ResolvedPriceCache> cacheProvider;
+
+    private final PriceRepository priceRepository;
+
+    private final BrandRepository brandRepository;
+
+    private final int parallelism;
+
+    private final int hotProducts;
+
+    private volatile WarmupStatus status = WarmupStatus.PENDING;
+
+    private volatile long durationMillis;
+
+    private volatile String failure;
+
+    public PriceResolutionLoader(ObjectProvider<PriceResolutionEngine> engineProvider,
+                                 ObjectProvider<ResolvedPriceCache> cacheProvider,
+                                 PriceRepository priceRepository,
+                                 BrandRepository brandRepository,
+                                 @Value("${prices.warmup.parallelism:4}") int parallelism,
+                                 @Value("${prices.warmup.hot-products:100}") int hotProducts) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("prices.warmup.parallelism must be at least 1");
+        }
+        this.engineProvider = engineProvider;
+        this.cacheProvider = cacheProvider;
+        this.priceRepository = priceRepository;
+        this.brandRepository = brandRepository;
+        this.parallelism = parallelism;
+        this.hotProducts = hotProducts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        Thread warmup = new Thread(this::warmUp, "price-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    /*
+     * Si falla, el motor se queda como estaba (sin cargar o con su snapshot) y el servicio sigue resolviendo contra
+     * la base de datos: el fallo se registra y la readiness pasa a UP con el error en el detalle.
+     */
+    void warmUp() {
+        status = WarmupStatus.RUNNING;
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, warmupThreadFactory());
+        try {
+            PriceResolutionEngine engine = engineProvider.getIfAvailable();
+            if (engine != null) {
+                long engineStart = System.nanoTime();
+                engine.load(loadByBrand(executor));
+                log.info("Price resolution engine '{}' loaded in {} ms", engine.name(), (System.nanoTime() - engineStart) / 1_000_000);
+            }
+            preResolveHotProducts(executor, engine);
+            status = WarmupStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            failure = e.toString();
+            status = WarmupStatus.FAILED;
+            log.error("Price warm-up failed, prices are resolved from the database", e);
+        } finally {
+            executor.shutdownNow();
+            durationMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Price warm-up {} in {} ms", status, durationMillis);
+        }
+    }
+
+    public WarmupStatus status() {
+        return status;
+    }
+
+    public long durationMillis() {
+        return durationMillis;
+    }
+
+    public String failure() {
+        return failure;
+    }
+
+    /**
+     * Indica si el motor de resolución configurado ya puede responder, aunque el calentamiento no haya terminado
+     * (por ejemplo, con el snapshot proyectado del ColumnarPriceEngine).
+     */
+    public boolean engineReady() {
+        PriceResolutionEngine engine = engineProvider.getIfAvailable();
+        return engine != null && engine.isReady();
+    }
+
+    private List<PRICES> loadByBrand(ExecutorService executor) {
+        List<Callable<List<PRICES>>> partitions = brandRepository.findAllIds().stream()
+                .sorted()
+                .<Callable<List<PRICES>>>map(brandId -> () -> {
+                    long start = System.nanoTime();
+                    List<PRICES> prices = priceRepository.findByBrandId(brandId);
+                    log.info("Warm-up partition brand {}: {} prices loaded in {} ms",
+                            brandId, prices.size(), (System.nanoTime() - start) / 1_000_000);
+                    return prices;
+                })
+                .toList();
+
+        List<PRICES> catalog = new ArrayList<>();
+        for (List<PRICES> prices : invokeAll(executor, partitions)) {
+            catalog.addAll(prices);
+        }
+        return catalog;
+    }
+
+    /*
+     * Resuelve "ahora" los productos con más precios en el motor (para que el JIT compile la ruta de consulta)
+     * y en la caché (para que sus tramos actuales ya estén cargados).
+     */
+    private void preResolveHotProducts(ExecutorService executor, PriceResolutionEngine engine) {
+        ResolvedPriceCache cache = cacheProvider.getIfAvailable();
+        boolean engineReady = engine != null && engine.isReady();
+        if (hotProducts <= 0 || (cache == null && !engineReady)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<PriceKey> keys = priceRepository.findKeysOrderByPriceCount(PageRequest.ofSize(hotProducts));
+        invokeAll(executor, keys.stream()
+                .<Callable<Boolean>>map(key -> () -> {
+                    if (engineReady) {
+                        engine.resolve(now, key.productId(), key.brandId());
+                    }
+                    if (cache != null) {
+                        cache.resolve(now, key.productId(), key.brandId());
+                    }
+                    return true;
+                })
+                .toList());
+        log.info("Warm-up pre-resolved {} hot products at {} in {} ms", keys.size(), now, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) {
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Price warm-up task failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Price warm-up interrupted", e);
+        }
+    }
+
+    private static CustomizableThreadFactory warmupThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("price-warmup-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
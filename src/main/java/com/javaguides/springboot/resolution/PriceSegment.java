@@ -0,0 +1,19 @@
+package com.javaguides.springboot.resolution;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tramo de la línea temporal de precios efectivos de una clave (brandId, productId).
+ *
+ * El tramo es semiabierto [from, until): empieza en "from" incluido y termina justo antes de "until".
+ * "price" es la fila de PRICES que gana por prioridad en todo el tramo.
+ */
+public record PriceSegment(LocalDateTime from, LocalDateTime until, PriceEntry price) {
+
+    /**
+     * Indica si la fecha pertenece al tramo.
+     */
+    public boolean contains(LocalDateTime date) {
+        return !date.isBefore(from) && date.isBefore(until);
+    }
+}
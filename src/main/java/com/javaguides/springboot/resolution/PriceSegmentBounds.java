@@ -0,0 +1,26 @@
+package com.javaguides.springboot.resolution;
+
+import java.time.LocalDateTime;
+
+/**
+ * Límites que los precios que ganan a otro ponen al tramo de ese otro alrededor de una fecha: el último endDate
+ * anterior a la fecha y el primer startDate posterior. Cualquiera de los dos es null si no hay ninguno.
+ *
+ * Es la proyección de PriceRepository.findSegmentBounds, que los calcula con agregados sin leer las filas.
+ */
+public record PriceSegmentBounds(LocalDateTime previousEnd, LocalDateTime nextStart) {
+
+    /**
+     * Tramo del precio ganador de la fecha: su vigencia recortada por los límites. Los precios que le ganan no
+     * pueden contener la fecha (si no, ganarían ellos), así que el ganador se aplica desde justo después del último
+     * que termina antes hasta justo antes del primero que empieza después.
+     *
+     * @param price el precio ganador en la fecha.
+     * @return el tramo semiabierto en el que ese precio sigue siendo el aplicable.
+     */
+    public PriceSegment around(PriceEntry price) {
+        LocalDateTime from = previousEnd == null ? price.startDate() : PriceTimeline.exclusiveEnd(previousEnd);
+        LocalDateTime until = nextStart == null ? PriceTimeline.exclusiveEnd(price) : nextStart;
+        return new PriceSegment(from, until, price);
+    }
+}
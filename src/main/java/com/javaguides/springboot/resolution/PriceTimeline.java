@@ -0,0 +1,120 @@
+package com.javaguides.springboot.resolution;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Línea temporal precalculada de una clave (brandId, productId): los solapamientos entre filas de PRICES se
+ * resuelven por prioridad al construirla, quedando una lista ordenada de tramos disjuntos.
+ *
+ * Resolver una fecha es una búsqueda binaria sobre los inicios de los tramos, sin recorrer candidatos.
+ */
+public final class PriceTimeline {
+
+    private final LocalDateTime[] starts;
+
+    private final List<PriceSegment> segments;
+
+    private PriceTimeline(List<PriceSegment> segments) {
+        this.segments = List.copyOf(segments);
+        this.starts = segments.stream().map(PriceSegment::from).toArray(LocalDateTime[]::new);
+    }
+
+    /**
+     * Construye la línea temporal a partir de las filas de una clave.
+     */
+    public static PriceTimeline of(Collection<PriceEntry> entries) {
+        return new PriceTimeline(sweep(entries));
+    }
+
+    /**
+     * Devuelve el tramo que contiene la fecha, si existe.
+     */
+    public Optional<PriceSegment> segmentAt(LocalDateTime date) {
+        int index = Arrays.binarySearch(starts, date);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0) {
+            return Optional.empty();
+        }
+        PriceSegment segment = segments.get(index);
+        return segment.contains(date) ? Optional.of(segment) : Optional.empty();
+    }
+
+    /**
+     * Devuelve el precio vigente en la fecha.
+     */
+    public Optional<PriceEntry> priceAt(LocalDateTime date) {
+        return segmentAt(date).map(PriceSegment::price);
+    }
+
+    /**
+     * Tramos ordenados por fecha de inicio.
+     */
+    public List<PriceSegment> segments() {
+        return segments;
+    }
+
+    /**
+     * Recorre con una línea de barrido los inicios y fines de las filas, manteniendo el conjunto de filas activas
+     * ordenado por preferencia. Cada vez que cambia la fila ganadora se cierra un tramo; los huecos sin ninguna
+     * fila activa no generan tramo.
+     */
+    public static List<PriceSegment> sweep(Collection<PriceEntry> entries) {
+        List<Event> events = new ArrayList<>(entries.size() * 2);
+        for (PriceEntry entry : entries) {
+            events.add(new Event(entry.startDate(), true, entry));
+            events.add(new Event(exclusiveEnd(entry), false, entry));
+        }
+        events.sort(Comparator.comparing(Event::at));
+
+        List<PriceSegment> segments = new ArrayList<>();
+        TreeSet<PriceEntry> active = new TreeSet<>(PriceEntry.PREFERENCE);
+        PriceEntry current = null;
+        LocalDateTime currentFrom = null;
+
+        int i = 0;
+        while (i < events.size()) {
+            LocalDateTime at = events.get(i).at();
+            for (; i < events.size() && events.get(i).at().equals(at); i++) {
+                Event event = events.get(i);
+                if (event.start()) {
+                    active.add(event.entry());
+                } else {
+                    active.remove(event.entry());
+                }
+            }
+
+            PriceEntry winner = active.isEmpty() ? null : active.first();
+            if (winner != current) {
+                if (current != null) {
+                    segments.add(new PriceSegment(currentFrom, at, current));
+                }
+                current = winner;
+                currentFrom = at;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Fin exclusivo de la vigencia de una fila: el instante siguiente a su endDate, que está incluido.
+     */
+    static LocalDateTime exclusiveEnd(PriceEntry entry) {
+        return exclusiveEnd(entry.endDate());
+    }
+
+    static LocalDateTime exclusiveEnd(LocalDateTime endDate) {
+        return endDate.plusNanos(1);
+    }
+
+    private record Event(LocalDateTime at, boolean start, PriceEntry entry) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.javaguides.springboot.resolution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.javaguides.springboot.config.MetricsConfig;
+import com.javaguides.springboot.model.PriceKey;
+import com.javaguides.springboot.repository.PriceRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caché acotada (tamaño máximo y caducidad, política W-TinyLFU de Caffeine) delante de la consulta de precio vigente.
+ *
+ * La clave es (brandId, productId, tramo de tiempo) y el valor son los precios de esa clave que se solapan con el tramo,
+ * ordenados por preferencia, de modo que todas las consultas del mismo producto dentro del tramo se resuelven en memoria.
+ * Un índice secundario guarda los tramos cargados de cada (brandId, productId) para invalidar exactamente esas entradas
+ * tras una escritura.
+ */
+@Component
+@ConditionalOnProperty(name = "prices.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResolvedPriceCache {
+
+    /**
+     * Clave de la caché: producto de una marca y número de tramo (segundos desde epoch / duración del tramo).
+     */
+    record BucketKey(PriceKey key, long bucket) {
+    }
+
+    private final PriceRepository priceRepository;
+
+    private final long bucketSeconds;
+
+    private final long maximumSize;
+
+    private final Cache<BucketKey, List<PriceEntry>> cache;
+
+    private final ConcurrentMap<PriceKey, Set<BucketKey>> bucketsByKey = new ConcurrentHashMap<>();
+
+    private DistributionSummary loadedCandidates;
+
+    public ResolvedPriceCache(PriceRepository priceRepository,
+                              @Value("${prices.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${prices.cache.ttl:PT10M}") Duration ttl,
+                              @Value("${prices.cache.bucket:PT1H}") Duration bucket) {
+        if (bucket.getSeconds() <= 0) {
+            throw new IllegalArgumentException("prices.cache.bucket must be at least one second");
+        }
+        this.priceRepository = priceRepository;
+        this.bucketSeconds = bucket.getSeconds();
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .executor(Runnable::run)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    /**
+     * Publica en el registro de métricas las estadísticas de la caché (cache.gets, cache.evictions...) y el número
+     * de precios candidatos de cada tramo cargado.
+     */
+    @Autowired(required = false)
+    void setMeterRegistry(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "prices.resolved");
+        this.loadedCandidates = MetricsConfig.candidatesSummary(meterRegistry, "cache");
+    }
+
+    /**
+     * Precio de mayor prioridad vigente en la fecha dada, cargando de la base de datos el tramo si no está en caché.
+     */
+    public Optional<PriceEntry> resolve(LocalDateTime date, long productId, long brandId) {
+        BucketKey bucketKey = new BucketKey(new PriceKey(brandId, productId), bucketOf(date));
+        for (PriceEntry entry : cache.get(bucketKey, this::load)) {
+            if (entry.contains(date)) {
+                return Optional.of(entry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Tramo de precio efectivo que contiene la fecha, con los precios del tramo de caché de la fecha. Como la caché sólo
+     * tiene los precios que se solapan con su tramo, el tramo de precio devuelto se recorta a los límites de éste.
+     */
+    public Optional<PriceSegment> segmentAt(LocalDateTime date, long productId, long brandId) {
+        long bucket = bucketOf(date);
+        List<PriceEntry> prices = cache.get(new BucketKey(new PriceKey(brandId, productId), bucket), this::load);
+        LocalDateTime bucketFrom = LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+        LocalDateTime bucketUntil = bucketFrom.plusSeconds(bucketSeconds);
+        return PriceTimeline.of(prices).segmentAt(date).map(segment -> new PriceSegment(
+                segment.from().isBefore(bucketFrom) ? bucketFrom : segment.from(),
+                segment.until().isAfter(bucketUntil) ? bucketUntil : segment.until(),
+                segment.price()));
+    }
+
+    /**
+     * Elimina todos los tramos en caché del producto de una marca.
+     */
+    public void invalidate(PriceKey key) {
+        Set<BucketKey> buckets = bucketsByKey.remove(key);
+        if (buckets != null) {
+            cache.invalidateAll(buckets);
+        }
+    }
+
+    public void invalidate(Collection<PriceKey> keys) {
+        keys.forEach(this::invalidate);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        bucketsByKey.clear();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    /*
+     * El tramo se registra en el índice ANTES de leer la base de datos: si una escritura confirma después del registro,
+     * su invalidación encuentra el tramo (y espera a que termine la carga); si confirmó antes, la lectura ya la ve.
+     */
+    private List<PriceEntry> load(BucketKey bucketKey) {
+        bucketsByKey.computeIfAbsent(bucketKey.key(), key -> ConcurrentHashMap.newKeySet()).add(bucketKey);
+
+        LocalDateTime from = LocalDateTime.ofEpochSecond(bucketKey.bucket() * bucketSeconds, 0, ZoneOffset.UTC);
+        LocalDateTime until = from.plusSeconds(bucketSeconds).minusNanos(1);
+        List<PriceEntry> prices = priceRepository.findEntriesByDateRangeProductIdBrand(from, until,
+                        bucketKey.key().productId(), bucketKey.key().brandId()).stream()
+                .sorted(PriceEntry.PREFERENCE)
+                .toList();
+        if (loadedCandidates != null) {
+            loadedCandidates.record(prices.size());
+        }
+        return prices;
+    }
+
+    /*
+     * Las entradas expulsadas por tamaño o caducidad se quitan también del índice, salvo que el tramo se haya
+     * vuelto a cargar entretanto. Las invalidaciones explícitas ya lo han quitado.
+     */
+    private void onRemoval(BucketKey bucketKey, List<PriceEntry> prices, RemovalCause cause) {
+        if (bucketKey == null || !cause.wasEvicted()) {
+            return;
+        }
+        bucketsByKey.computeIfPresent(bucketKey.key(), (key, buckets) -> {
+            if (!cache.asMap().containsKey(bucketKey)) {
+                buckets.remove(bucketKey);
+            }
+            return buckets.isEmpty() ? null : buckets;
+        });
+    }
+
+    private long bucketOf(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+}
@@ -0,0 +1,108 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Motor de resolución sobre versiones inmutables del catálogo (PriceCatalogSnapshot) que se sustituyen de forma atómica.
+ *
+ * Se activa con "prices.resolution.engine=snapshot". Las lecturas sólo leen la referencia a la versión actual: no toman
+ * bloqueos ni conexiones JDBC. Cada escritura confirmada publica una versión nueva que comparte con la anterior todas
+ * las claves no modificadas. Una petición HTTP puede fijar la versión con la que se resuelve (ver CatalogVersionFilter)
+ * para que todas sus consultas vean el mismo catálogo y la respuesta indique esa versión.
+ */
+@Component
+@ConditionalOnProperty(name = "prices.resolution.engine", havingValue = SnapshotPriceEngine.NAME)
+public class SnapshotPriceEngine implements PriceResolutionEngine {
+
+    public static final String NAME = "snapshot";
+
+    private static final ThreadLocal<PriceCatalogSnapshot> PINNED = new ThreadLocal<>();
+
+    private final AtomicReference<PriceCatalogSnapshot> current = new AtomicReference<>(PriceCatalogSnapshot.EMPTY);
+
+    /**
+     * Claves que han recibido alguna escritura con refresh().
+     */
+    private final Set<PriceKey> refreshed = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /*
+     * Igual que el ColumnarPriceEngine, conserva las claves que han recibido alguna escritura: sus filas son las
+     * confirmadas en la última escritura, nunca más antiguas que las del catálogo, aunque éste se haya leído antes.
+     * Si una escritura publica durante la carga, updateAndGet repite sólo la mezcla con la versión nueva.
+     */
+    @Override
+    public boolean isCurrent() {
+        return snapshot() == current.get();
+    }
+
+    @Override
+    public void load(Collection<PRICES> catalog) {
+        PriceCatalogSnapshot loaded = PriceCatalogSnapshot.of(0, catalog);
+        current.updateAndGet(snapshot -> loaded.keeping(snapshot, refreshed));
+        ready = true;
+    }
+
+    /*
+     * updateAndGet puede repetir la función si otra escritura publica antes; como sólo construye la línea temporal
+     * de una clave sobre la versión leída, repetirla es barato y ninguna escritura se pierde.
+     */
+    @Override
+    public void refresh(PriceKey key, Collection<PRICES> prices) {
+        refreshed.add(key);
+        current.updateAndGet(snapshot -> snapshot.withKey(key, prices));
+    }
+
+    @Override
+    public Optional<PriceEntry> resolve(LocalDateTime date, long productId, long brandId) {
+        return snapshot().resolve(date, productId, brandId);
+    }
+
+    @Override
+    public Optional<PriceSegment> segmentAt(LocalDateTime date, long productId, long brandId) {
+        return snapshot().segmentAt(date, productId, brandId);
+    }
+
+    /**
+     * Versión con la que se resuelve en el hilo actual: la fijada con pin() o, si no hay, la última publicada.
+     */
+    public PriceCatalogSnapshot snapshot() {
+        PriceCatalogSnapshot pinned = PINNED.get();
+        return pinned != null ? pinned : current.get();
+    }
+
+    /**
+     * Fija en el hilo actual la última versión publicada y la devuelve; hasta unpin() todas las consultas del hilo
+     * se resuelven contra ella.
+     */
+    public PriceCatalogSnapshot pin() {
+        PriceCatalogSnapshot snapshot = current.get();
+        PINNED.set(snapshot);
+        return snapshot;
+    }
+
+    public void unpin() {
+        PINNED.remove();
+    }
+}
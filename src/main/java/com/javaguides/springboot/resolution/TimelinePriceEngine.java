@@ -0,0 +1,41 @@
+package com.javaguides.springboot.resolution;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Motor de resolución que mantiene una PriceTimeline de tramos disjuntos por clave (brandId, productId).
+ *
+ * Se activa con "prices.resolution.engine=timeline". Cada escritura recalcula sólo la línea temporal de la clave
+ * afectada.
+ */
+@Component
+@ConditionalOnProperty(name = "prices.resolution.engine", havingValue = TimelinePriceEngine.NAME)
+public class TimelinePriceEngine extends AbstractKeyedPriceEngine<PriceTimeline> {
+
+    public static final String NAME = "timeline";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    protected PriceTimeline build(List<PriceEntry> entries) {
+        return PriceTimeline.of(entries);
+    }
+
+    @Override
+    protected Optional<PriceEntry> lookup(PriceTimeline timeline, LocalDateTime date) {
+        return timeline.priceAt(date);
+    }
+
+    @Override
+    protected Optional<PriceSegment> segment(PriceTimeline timeline, LocalDateTime date) {
+        return timeline.segmentAt(date);
+    }
+}
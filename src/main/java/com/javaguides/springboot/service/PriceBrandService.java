@@ -1,12 +1,24 @@
 package com.javaguides.springboot.service;
 
+import com.javaguides.springboot.dto.BasketDto;
+import com.javaguides.springboot.dto.BrandSummaryDto;
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.dto.PriceDeltaDto;
+import com.javaguides.springboot.dto.PriceImportFormat;
+import com.javaguides.springboot.dto.PriceImportReportDto;
+import com.javaguides.springboot.dto.PriceQueryDto;
+import com.javaguides.springboot.dto.PriceSegmentDto;
 import com.javaguides.springboot.model.BRAND;
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.resolution.PriceSegment;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.query.Param;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /*
  * Interfaz del servicio PriceBrandService para gestionar la lógica de negocio
@@ -32,11 +44,59 @@ public interface PriceBrandService {
      */
     List<BRAND> getAllBrands();
 
+    /*
+     * Devuelve todas las marcas con su número de precios, sin cargar los precios.
+     */
+    List<BrandSummaryDto> getBrandSummaries();
+
+    /*
+     * Busca el resumen (datos y número de precios) de una marca por su ID.
+     * Si no se encuentra, devuelve un Optional vacío.
+     */
+    Optional<BrandSummaryDto> getBrandSummary(long id);
+
     /*
      * Devuelve una lista de todos los precios registrados en la base de datos.
      */
     List<PRICES> getAllPrices();
 
+    /*
+     * Devuelve una página de como máximo "size" precios con ID mayor que "afterPriceId", ordenados por ID
+     * y filtrados por los criterios no nulos de PriceFilterDto. La página indica si hay más precios después.
+     */
+    Slice<PRICES> getPrices(PriceFilterDto filter, long afterPriceId, int size);
+
+    /*
+     * Recorre en streaming todos los precios de la base de datos, por orden de ID, entregando cada uno al consumidor
+     * sin acumularlos en memoria. Devuelve el número de precios exportados.
+     */
+    long exportPrices(Consumer<PRICES> consumer);
+
+    /*
+     * Devuelve la versión actual del catálogo de precios, que incrementa cada escritura de precios.
+     */
+    long getCatalogVersion();
+
+    /*
+     * Devuelve una página de como máximo "size" cambios del catálogo posteriores a la posición (sinceVersion,
+     * afterPriceId), ordenados por versión y precio: el estado actual de cada precio creado o modificado y una lápida
+     * por cada precio borrado. Un precio cambiado varias veces aparece una sola vez, con su última versión.
+     */
+    Slice<PriceDeltaDto> getPriceDelta(long sinceVersion, long afterPriceId, int size);
+
+    /*
+     * Recorre en streaming los cambios del catálogo posteriores a sinceVersion, en el mismo orden que getPriceDelta,
+     * sin acumularlos en memoria. Devuelve el número de cambios exportados.
+     */
+    long exportPriceDelta(long sinceVersion, Consumer<PriceDeltaDto> consumer);
+
+    /*
+     * Importa de forma masiva los precios leídos en streaming de un fichero CSV o NDJSON.
+     * Las filas no válidas (marca inexistente, fechas incoherentes, formato incorrecto...) se rechazan sin detener
+     * la importación. Devuelve el informe con las filas importadas, las rechazadas y la velocidad de carga.
+     */
+    PriceImportReportDto importPrices(InputStream input, PriceImportFormat format);
+
     /*
      * Busca un precio por su ID y lo devuelve en un Optional.
      * Si no se encuentra, devuelve un Optional vacío.
@@ -77,5 +137,31 @@ public interface PriceBrandService {
      * Devuelve el precio que coincide con estos criterios.
      */
     PRICES findByDateRequestIdProductIdBrand(LocalDateTime fechaApli, long idProd, long idBrand);
-}
 
+    /*
+     * Busca el tramo de precio efectivo que contiene la fecha para el producto y la marca: el precio de mayor prioridad
+     * y el instante en que deja de ser el aplicable (el siguiente inicio o fin de una fila que cambia el ganador).
+     * Usa el motor en memoria o la caché si ya reflejan todas las escrituras confirmadas y, si no, consultas a la base
+     * de datos acotadas por fecha. Si no hay ningún precio vigente devuelve un Optional vacío.
+     */
+    Optional<PriceSegment> findPriceSegmentAt(LocalDateTime fechaApli, long idProd, long idBrand);
+
+    /*
+     * Resuelve por lotes varias consultas (fecha de aplicación, producto, marca) de una sola vez.
+     * Devuelve una lista con el mismo orden que las consultas; las que no tienen precio se devuelven
+     * como un PRICES vacío, igual que en findByDateRequestIdProductIdBrand.
+     */
+    List<PRICES> findByDateRequestIdProductIdBrand(List<PriceQueryDto> queries);
+
+    /*
+     * Calcula los tramos de precio efectivo (ya resuelta la prioridad) de un producto de una marca entre dos fechas,
+     * ambas incluidas. Los tramos se recortan al rango pedido y los huecos sin precio no generan tramo.
+     */
+    List<PriceSegmentDto> getPriceTimeline(long idProd, long idBrand, LocalDateTime desde, LocalDateTime hasta);
+
+    /*
+     * Valora una cesta: resuelve de una sola vez el precio aplicable en la fecha de cada producto de la marca y suma
+     * los precios encontrados. Si los precios de la cesta no están todos en la misma moneda lanza CurrencyMismatchException.
+     */
+    BasketDto priceBasket(long idBrand, LocalDateTime fechaApli, List<Long> idProds);
+}
@@ -1,19 +1,83 @@
 package com.javaguides.springboot.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javaguides.springboot.config.MetricsConfig;
+import com.javaguides.springboot.dto.BasketDto;
+import com.javaguides.springboot.dto.BrandSummaryDto;
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.dto.PriceImportFormat;
+import com.javaguides.springboot.dto.PriceDeltaDto;
+import com.javaguides.springboot.dto.PriceImportReportDto;
+import com.javaguides.springboot.dto.PriceQueryDto;
+import com.javaguides.springboot.dto.PriceSegmentDto;
+import com.javaguides.springboot.dto.PricesDto;
+import com.javaguides.springboot.dto.PricesExamDto;
+import com.javaguides.springboot.event.PriceChangeEvent;
+import com.javaguides.springboot.exception.CurrencyMismatchException;
 import com.javaguides.springboot.exception.ResourceNotFoundException;
+import com.javaguides.springboot.mapper.PricesExamMapper;
+import com.javaguides.springboot.mapper.PricesImportMapper;
+import com.javaguides.springboot.mapper.PricesMapper;
 import com.javaguides.springboot.model.BRAND;
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PRICE_CHANGE;
+import com.javaguides.springboot.model.PriceKey;
 import com.javaguides.springboot.repository.BrandRepository;
+import com.javaguides.springboot.repository.PriceChangeRepository;
 import com.javaguides.springboot.repository.PriceRepository;
+import com.javaguides.springboot.resolution.PriceChangeListener;
+import com.javaguides.springboot.resolution.PriceEntry;
+import com.javaguides.springboot.resolution.PriceResolutionEngine;
+import com.javaguides.springboot.resolution.PriceSegment;
+import com.javaguides.springboot.resolution.PriceTimeline;
+import com.javaguides.springboot.resolution.ResolvedPriceCache;
 import com.javaguides.springboot.service.PriceBrandService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.javamoney.moneta.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
 
 /*
  * Clase de implementación del servicio PriceBrandService.
@@ -22,7 +86,30 @@ import java.util.Set;
  * y las marcas asociadas a ellos, utilizando los repositorios de datos correspondientes.
  */
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true, description = "PriceBrandService method latency")
 public class PriceBrandServiceImpl implements PriceBrandService {
+
+    /*
+     * Sentencia de inserción de la importación masiva y número de filas por lote JDBC.
+     */
+    private static final String IMPORT_INSERT_SQL = "INSERT INTO prices "
+            + "(price_id, brand_id, start_date, end_date, price_list, product_id, priority, price, curr) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int IMPORT_JDBC_BATCH_SIZE = 1000;
+
+    /*
+     * Sentencia de la importación masiva que registra en el registro de cambios los precios insertados en el bloque.
+     */
+    private static final String IMPORT_CHANGES_SQL = "INSERT INTO price_changes (price_id, catalog_version, deleted) VALUES (?, ?, FALSE)";
+
+    /*
+     * Amplitud máxima de fechas de cada consulta a la base de datos de la resolución por lotes.
+     */
+    static final Duration BATCH_DATE_WINDOW = Duration.ofDays(31);
+
+    /*
+     * Número máximo de filas rechazadas que se detallan en el informe de importación.
+     */
+    private static final int IMPORT_MAX_REPORTED_REJECTS = 1000;
     
     @Autowired
     private PriceRepository priceRepository;
@@ -30,13 +117,85 @@ public class PriceBrandServiceImpl implements PriceBrandService {
     @Autowired
     private BrandRepository brandRepository;
 
+    /*
+     * Registro de cambios del catálogo y versión global, que cada escritura incrementa y registra en su transacción.
+     */
+    private final PriceChangeRepository priceChangeRepository;
+
+    /*
+     * Publica un PriceChangeEvent por cada escritura de precios; sus oyentes (PriceChangeListener) actualizan el motor
+     * de resolución y la caché cuando la transacción se confirma.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /*
+     * Motor de resolución en memoria, opcional. Sólo existe si se configura "prices.resolution.engine".
+     */
+    @Autowired(required = false)
+    private PriceResolutionEngine priceResolutionEngine;
+
+    /*
+     * Caché de precios resueltos delante de la consulta a la base de datos, opcional ("prices.cache.enabled").
+     */
+    @Autowired(required = false)
+    private ResolvedPriceCache resolvedPriceCache;
+
+    /*
+     * Oyente que aplica los cambios confirmados al motor y a la caché; indica si quedan escrituras sin aplicar.
+     */
+    @Autowired(required = false)
+    private PriceChangeListener priceChangeListener;
+
+    /*
+     * Histogramas del número de precios candidatos leídos de la base de datos por consulta, opcionales (sin registro
+     * de métricas, como en los tests unitarios, no se miden).
+     */
+    private DistributionSummary databaseCandidates;
+
+    private DistributionSummary batchCandidates;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /*
+     * Sentencia que pide el siguiente valor de la secuencia de precios en el dialecto de la base de datos (por ejemplo
+     * "select next value for prices_seq" en H2 o "select nextval('prices_seq')" en PostgreSQL). Se obtiene del dialecto
+     * de Hibernate en la primera importación.
+     */
+    private String importIdBlockSql;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /*
+     * Filas que se confirman en cada transacción de la importación masiva.
+     */
+    @Value("${prices.import.chunk-size:10000}")
+    private int importChunkSize;
+
     /*
      * Constructor de la clase PriceBrandServiceImpl.
-     * Recibe los repositorios que permiten la gestión de precios y marcas.
+     * Recibe los repositorios que permiten la gestión de precios, marcas y del registro de cambios, y el publicador
+     * de eventos de cambio de precios.
      */
-    public PriceBrandServiceImpl(PriceRepository pricesRepository, BrandRepository brandRepository) {
+    public PriceBrandServiceImpl(PriceRepository pricesRepository, BrandRepository brandRepository,
+                                 PriceChangeRepository priceChangeRepository, ApplicationEventPublisher eventPublisher) {
         this.priceRepository = pricesRepository;
         this.brandRepository = brandRepository;
+        this.priceChangeRepository = priceChangeRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Autowired(required = false)
+    void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.databaseCandidates = MetricsConfig.candidatesSummary(meterRegistry, "database");
+        this.batchCandidates = MetricsConfig.candidatesSummary(meterRegistry, "batch");
     }
 
     /*
@@ -46,6 +205,7 @@ public class PriceBrandServiceImpl implements PriceBrandService {
      * Devuelve la marca asociada.
      */
     @Override
+    @Transactional
     public BRAND savePriceBrand(PRICES price, BRAND brand) {
         Optional<PRICES> priceBD = priceRepository.findById(price.getPriceId());
         Optional<BRAND> brandBD = brandRepository.findById(brand.getId());
@@ -63,6 +223,8 @@ public class PriceBrandServiceImpl implements PriceBrandService {
 
         brandRepository.save(brand);
         priceRepository.save(price);
+        priceChangeRepository.recordCreated(price.getPriceId());
+        eventPublisher.publishEvent(new PriceChangeEvent.PriceCreated(price.getPriceId(), PriceKey.of(price)));
 
         return brand;
     }
@@ -84,6 +246,22 @@ public class PriceBrandServiceImpl implements PriceBrandService {
         return brandRepository.findAll();
     }
 
+    /*
+     * Obtiene todas las marcas con su número de precios, contados con una consulta agregada.
+     */
+    @Override
+    public List<BrandSummaryDto> getBrandSummaries() {
+        return brandRepository.findSummaries();
+    }
+
+    /*
+     * Obtiene el resumen de una marca por su ID, con su número de precios contado con una consulta agregada.
+     */
+    @Override
+    public Optional<BrandSummaryDto> getBrandSummary(long id) {
+        return brandRepository.findSummaryById(id);
+    }
+
     /*
      * Obtiene todos los precios almacenados en la base de datos.
      * Devuelve una lista de precios.
@@ -93,6 +271,221 @@ public class PriceBrandServiceImpl implements PriceBrandService {
         return priceRepository.findAll();
     }
 
+    /*
+     * Obtiene una página de precios por clave (priceId). Se pide una fila más del tamaño de página
+     * para saber si existe una página siguiente sin tener que contar todas las filas.
+     */
+    @Override
+    public Slice<PRICES> getPrices(PriceFilterDto filter, long afterPriceId, int size) {
+        List<PRICES> pricesList = priceRepository.findPage(filter, afterPriceId, size + 1);
+        boolean hasNext = pricesList.size() > size;
+        return new SliceImpl<>(hasNext ? pricesList.subList(0, size) : pricesList, PageRequest.ofSize(size), hasNext);
+    }
+
+    /*
+     * Exporta todos los precios recorriendo la tabla con un cursor de base de datos. Cada precio se separa del contexto
+     * de persistencia en cuanto se ha entregado al consumidor, de modo que la memoria usada no crece con el tamaño de la tabla.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPrices(Consumer<PRICES> consumer) {
+        long exported = 0;
+        try (Stream<PRICES> prices = priceRepository.streamAll()) {
+            for (PRICES price : (Iterable<PRICES>) prices::iterator) {
+                consumer.accept(price);
+                entityManager.detach(price);
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    /*
+     * Importa los precios de un fichero leyéndolo línea a línea. Las marcas válidas se cargan una sola vez al empezar;
+     * las filas válidas se acumulan en bloques de importChunkSize que se insertan con lotes JDBC, cada bloque en su
+     * propia transacción, de modo que nunca se tiene el fichero entero en memoria.
+     *
+     * Si un bloque no se puede confirmar la importación se detiene y se devuelve el informe parcial en lugar de propagar
+     * el error: los bloques anteriores ya están confirmados y committedThroughLine dice desde qué línea reanudar.
+     */
+    @Override
+    public PriceImportReportDto importPrices(InputStream input, PriceImportFormat format) {
+        long start = System.nanoTime();
+        Set<Long> brandIds = brandRepository.findAllIds();
+        PriceImportReportDto report = new PriceImportReportDto();
+        List<PricesDto> chunk = new ArrayList<>();
+        long chunkFromLine = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == PriceImportFormat.CSV && lineNumber == 1 && PricesImportMapper.isCsvHeader(line))) {
+                    continue;
+                }
+
+                report.setRowsRead(report.getRowsRead() + 1);
+                try {
+                    PricesDto row = format == PriceImportFormat.CSV
+                            ? PricesImportMapper.fromCsv(line)
+                            : PricesImportMapper.fromNdjson(objectMapper, line);
+                    validateImportRow(row, brandIds);
+                    if (chunk.isEmpty()) {
+                        chunkFromLine = lineNumber;
+                    }
+                    chunk.add(row);
+                } catch (IllegalArgumentException e) {
+                    report.setRowsRejected(report.getRowsRejected() + 1);
+                    if (report.getRejects().size() < IMPORT_MAX_REPORTED_REJECTS) {
+                        report.getRejects().add(new PriceImportReportDto.Reject(lineNumber, e.getMessage()));
+                    }
+                }
+
+                if (chunk.size() >= importChunkSize && !insertImportChunk(chunk, chunkFromLine, lineNumber, report)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (report.isComplete()) {
+            insertImportChunk(chunk, chunkFromLine, lineNumber, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos > 0 ? report.getRowsImported() * 1_000_000_000d / elapsedNanos : 0);
+        return report;
+    }
+
+    /*
+     * Comprueba una fila de la importación; si no es válida lanza IllegalArgumentException con el motivo.
+     */
+    private void validateImportRow(PricesDto row, Set<Long> brandIds) {
+        if (!brandIds.contains(row.getBrandId())) {
+            throw new IllegalArgumentException("Brand not found with ID: " + row.getBrandId());
+        }
+        if (row.getStartDate() == null || row.getEndDate() == null || row.getStartDate().isAfter(row.getEndDate())) {
+            throw new IllegalArgumentException("Invalid date range: " + row.getStartDate() + " - " + row.getEndDate());
+        }
+        if (row.getCurr() == null || row.getCurr().isBlank()) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+    }
+
+    /*
+     * Inserta un bloque de filas válidas con lotes JDBC en una única transacción y vacía el bloque. Los identificadores
+     * se asignan antes de insertar, con bloques reservados de la secuencia de precios: cada valor de la secuencia es el
+     * primero de un bloque de PRICES.ID_ALLOCATION_SIZE identificadores, igual que para Hibernate (pooled-lo), así que
+     * se pide un valor por cada bloque de PRICES.ID_ALLOCATION_SIZE filas.
+     *
+     * El evento PricesImported del bloque se publica dentro de su transacción, así que el motor, la caché y el feed lo
+     * reciben en cuanto el bloque se confirma: si falla un bloque posterior, los ya confirmados están igualmente al día.
+     *
+     * toLine es la línea del fichero hasta la que llega el bloque. Si se confirma, el informe queda confirmado hasta
+     * ella; si falla, el bloque se anota como fallo del informe, que deja de estar completo, y se devuelve false.
+     */
+    private boolean insertImportChunk(List<PricesDto> chunk, long fromLine, long toLine, PriceImportReportDto report) {
+        if (chunk.isEmpty()) {
+            report.setCommittedThroughLine(toLine);
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+            long version = priceChangeRepository.nextCatalogVersion();
+            String idBlockSql = importIdBlockSql();
+            long blockStart = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i % PRICES.ID_ALLOCATION_SIZE == 0) {
+                    blockStart = jdbcTemplate.queryForObject(idBlockSql, Long.class);
+                }
+                chunk.get(i).setPriceId(blockStart + i % PRICES.ID_ALLOCATION_SIZE);
+            }
+            jdbcTemplate.batchUpdate(IMPORT_INSERT_SQL, chunk, IMPORT_JDBC_BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row.getPriceId());
+                    ps.setLong(2, row.getBrandId());
+                    ps.setTimestamp(3, Timestamp.valueOf(row.getStartDate()));
+                    ps.setTimestamp(4, Timestamp.valueOf(row.getEndDate()));
+                    ps.setInt(5, row.getPriceList());
+                    ps.setLong(6, row.getProductId());
+                    ps.setInt(7, row.getPriority());
+                    ps.setDouble(8, row.getPrice());
+                    ps.setString(9, row.getCurr());
+                });
+            jdbcTemplate.batchUpdate(IMPORT_CHANGES_SQL, chunk, IMPORT_JDBC_BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, row.getPriceId());
+                    ps.setLong(2, version);
+                });
+            Set<PriceKey> keys = chunk.stream()
+                    .map(row -> new PriceKey(row.getBrandId(), row.getProductId()))
+                    .collect(Collectors.toUnmodifiableSet());
+            eventPublisher.publishEvent(new PriceChangeEvent.PricesImported(chunk.size(), keys));
+            });
+        } catch (DataAccessException | TransactionException e) {
+            report.setComplete(false);
+            report.setFailure(new PriceImportReportDto.ChunkFailure(fromLine, toLine, chunk.size(),
+                    e.getMostSpecificCause().getMessage()));
+            return false;
+        }
+
+        report.setRowsImported(report.getRowsImported() + chunk.size());
+        report.setCommittedThroughLine(toLine);
+        chunk.clear();
+        return true;
+    }
+
+    private String importIdBlockSql() {
+        if (importIdBlockSql == null) {
+            importIdBlockSql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(PRICES.ID_SEQUENCE);
+        }
+        return importIdBlockSql;
+    }
+
+    /*
+     * Obtiene la versión actual del catálogo de precios.
+     */
+    @Override
+    public long getCatalogVersion() {
+        return priceChangeRepository.findCatalogVersion();
+    }
+
+    /*
+     * Obtiene una página de cambios por clave (versión, priceId). Como en getPrices, se pide una fila más del tamaño
+     * de página para saber si existe una página siguiente.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<PriceDeltaDto> getPriceDelta(long sinceVersion, long afterPriceId, int size) {
+        List<PriceDeltaDto> deltaList = priceChangeRepository.findDelta(sinceVersion, afterPriceId, PageRequest.ofSize(size + 1)).stream()
+                .map(row -> PricesMapper.mapToPriceDeltaDto((PRICE_CHANGE) row[0], (PRICES) row[1]))
+                .toList();
+        boolean hasNext = deltaList.size() > size;
+        return new SliceImpl<>(hasNext ? deltaList.subList(0, size) : deltaList, PageRequest.ofSize(size), hasNext);
+    }
+
+    /*
+     * Recorre los cambios con un cursor de base de datos, separando cada fila del contexto de persistencia en cuanto
+     * se ha entregado, como exportPrices.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPriceDelta(long sinceVersion, Consumer<PriceDeltaDto> consumer) {
+        long exported = 0;
+        try (Stream<Object[]> rows = priceChangeRepository.streamDelta(sinceVersion)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                consumer.accept(PricesMapper.mapToPriceDeltaDto((PRICE_CHANGE) row[0], (PRICES) row[1]));
+                entityManager.detach(row[0]);
+                if (row[1] != null) {
+                    entityManager.detach(row[1]);
+                }
+                exported++;
+            }
+        }
+        return exported;
+    }
+
     /*
      * Busca un precio por su ID en la base de datos.
      * Devuelve un Optional con el precio encontrado o vacío si no existe.
@@ -115,8 +508,13 @@ public class PriceBrandServiceImpl implements PriceBrandService {
      * Actualiza un precio existente en la base de datos y lo devuelve.
      */
     @Override
+    @Transactional
     public PRICES updatePrice(PRICES price) {
-        return priceRepository.save(price);
+        PriceKey before = price.getLoadedKey();
+        PRICES updatedPrice = priceRepository.save(price);
+        priceChangeRepository.recordChange(updatedPrice.getPriceId(), false);
+        eventPublisher.publishEvent(new PriceChangeEvent.PriceUpdated(updatedPrice.getPriceId(), before, PriceKey.of(updatedPrice)));
+        return updatedPrice;
     }
 
     /*
@@ -131,34 +529,227 @@ public class PriceBrandServiceImpl implements PriceBrandService {
      * Elimina un precio de la base de datos según su ID.
      */
     @Override
+    @Transactional
     public void deletePrice(long id) {
+        Optional<PriceKey> key = priceRepository.findById(id).map(PriceKey::of);
         priceRepository.deleteById(id);
+        if (key.isPresent()) {
+            priceChangeRepository.recordChange(id, true);
+        }
+        key.ifPresent(before -> eventPublisher.publishEvent(new PriceChangeEvent.PriceDeleted(id, before)));
     }
 
     /*
      * Elimina una marca de la base de datos según su ID.
+     * Sus precios se borran antes con una única sentencia, para no cargarlos uno a uno al aplicar el cascade.
      */
     @Override
+    @Transactional
     public void deleteBrand(long id) {
+        long version = priceChangeRepository.nextCatalogVersion();
+        Set<PriceKey> keys = priceRepository.findProductIdsByBrandId(id).stream()
+                .map(productId -> new PriceKey(id, productId))
+                .collect(Collectors.toUnmodifiableSet());
+        priceChangeRepository.markBrandDeleted(id, version);
+        priceRepository.deleteByBrandId(id);
         brandRepository.deleteById(id);
+        eventPublisher.publishEvent(new PriceChangeEvent.BrandDeleted(id, keys));
     }
 
     /*
      * Busca un precio que coincida con la fecha, el ID del producto y el ID de la marca dados.
      * Si existen varios precios, devuelve el que tiene mayor prioridad.
      * Si no encuentra ningún precio, devuelve un objeto vacío.
+     *
+     * Sin motor ni caché, la prioridad la aplica la base de datos: la consulta devuelve sólo la fila ganadora
+     * (ORDER BY priority DESC con límite 1), proyectada en PriceEntry sin crear entidades.
      */
     @Override
     public PRICES findByDateRequestIdProductIdBrand(LocalDateTime fechaApli, long idProd, long idBrand) {
-        List<PRICES> pricesList = priceRepository.findByDateRequestIdProductIdBrand(fechaApli, idProd, idBrand);
-        PRICES priceFound = pricesList.size() > 0 ? pricesList.get(0) : new PRICES();
+        if (priceResolutionEngine != null && priceResolutionEngine.isReady()) {
+            return priceResolutionEngine.resolve(fechaApli, idProd, idBrand)
+                    .map(PriceEntry::toPrices)
+                    .orElseGet(PRICES::new);
+        }
+
+        if (resolvedPriceCache != null) {
+            return resolvedPriceCache.resolve(fechaApli, idProd, idBrand)
+                    .map(PriceEntry::toPrices)
+                    .orElseGet(PRICES::new);
+        }
+
+        Optional<PriceEntry> winner = priceRepository.findTopByDateRequestIdProductIdBrand(fechaApli, idProd, idBrand);
+        recordCandidates(databaseCandidates, winner.isPresent() ? 1 : 0);
+        return winner.map(PriceEntry::toPrices).orElseGet(PRICES::new);
+    }
+
+    /*
+     * Busca el tramo con el motor en memoria o, si no está cargado, con la caché. Quien llama necesita una respuesta al
+     * menos tan reciente como la versión del catálogo que leyó antes, y ambos se refrescan después de confirmar cada
+     * escritura: mientras PriceChangeListener tenga escrituras sin aplicar, o si la petición tiene fijada una versión
+     * del motor "snapshot" anterior a la última, se lee de la base de datos.
+     *
+     * En la base de datos se obtiene el precio ganador con la consulta de una sola fila (ORDER BY priority DESC con
+     * límite 1, proyectada en PriceEntry) y después los límites de su tramo con una consulta de agregados sobre los
+     * precios que le ganan dentro de su vigencia. Las dos van por el índice de búsqueda y no crean entidades PRICES.
+     */
+    @Override
+    public Optional<PriceSegment> findPriceSegmentAt(LocalDateTime fechaApli, long idProd, long idBrand) {
+        boolean upToDate = priceChangeListener == null || !priceChangeListener.hasPendingChanges();
+        if (upToDate && priceResolutionEngine != null && priceResolutionEngine.isReady() && priceResolutionEngine.isCurrent()) {
+            return priceResolutionEngine.segmentAt(fechaApli, idProd, idBrand);
+        }
+        if (upToDate && resolvedPriceCache != null) {
+            return resolvedPriceCache.segmentAt(fechaApli, idProd, idBrand);
+        }
+
+        Optional<PriceEntry> winner = priceRepository.findTopByDateRequestIdProductIdBrand(fechaApli, idProd, idBrand);
+        recordCandidates(databaseCandidates, winner.isPresent() ? 1 : 0);
+        return winner.map(price -> priceRepository.findSegmentBounds(fechaApli, idProd, idBrand, price.startDate(),
+                price.endDate(), price.priority(), price.priceId()).around(price));
+    }
+
+    /*
+     * Resuelve varias consultas de una sola vez. Con el motor en memoria cargado se hace una pasada por el índice;
+     * si no, las consultas se ordenan por fecha y se agrupan en ventanas de como mucho BATCH_DATE_WINDOW: para cada
+     * ventana se lanza una única consulta con sus marcas, productos y rango de fechas, y la prioridad se aplica en
+     * memoria para cada consulta. Así un lote con fechas muy separadas no lee todos los precios entre la primera y la
+     * última.
+     */
+    @Override
+    public List<PRICES> findByDateRequestIdProductIdBrand(List<PriceQueryDto> queries) {
+        if (queries.isEmpty()) {
+            return List.of();
+        }
+
+        if (priceResolutionEngine != null && priceResolutionEngine.isReady()) {
+            return queries.stream()
+                    .map(query -> priceResolutionEngine.resolve(query.getFechaAplicacion(), query.getProductId(), query.getBrandId())
+                            .map(PriceEntry::toPrices)
+                            .orElseGet(PRICES::new))
+                    .toList();
+        }
+
+        List<PriceQueryDto> byDate = queries.stream()
+                .sorted(Comparator.comparing(PriceQueryDto::getFechaAplicacion))
+                .toList();
+        Map<PriceQueryDto, PRICES> resolved = new IdentityHashMap<>(queries.size());
+        int windowStart = 0;
+        while (windowStart < byDate.size()) {
+            LocalDateTime desde = byDate.get(windowStart).getFechaAplicacion();
+            LocalDateTime limite = desde.plus(BATCH_DATE_WINDOW);
+            int windowEnd = windowStart + 1;
+            while (windowEnd < byDate.size() && !byDate.get(windowEnd).getFechaAplicacion().isAfter(limite)) {
+                windowEnd++;
+            }
+            resolveBatchWindow(byDate.subList(windowStart, windowEnd), resolved);
+            windowStart = windowEnd;
+        }
+        return queries.stream().map(resolved::get).toList();
+    }
+
+    /*
+     * Resuelve con una sola consulta las consultas de una ventana de fechas (ordenadas por fecha).
+     */
+    private void resolveBatchWindow(List<PriceQueryDto> window, Map<PriceQueryDto, PRICES> resolved) {
+        LocalDateTime desde = window.get(0).getFechaAplicacion();
+        LocalDateTime hasta = window.get(window.size() - 1).getFechaAplicacion();
+        Set<Long> idProds = window.stream().map(PriceQueryDto::getProductId).collect(Collectors.toSet());
+        Set<Long> idBrands = window.stream().map(PriceQueryDto::getBrandId).collect(Collectors.toSet());
+
+        Map<PriceKey, List<PriceEntry>> candidates = priceRepository
+                .findByDateRangeProductIdsBrandIds(desde, hasta, idProds, idBrands).stream()
+                .map(PriceEntry::of)
+                .collect(Collectors.groupingBy(PriceEntry::key));
+
+        for (PriceQueryDto query : window) {
+            PriceEntry best = null;
+            int candidateCount = 0;
+            for (PriceEntry entry : candidates.getOrDefault(new PriceKey(query.getBrandId(), query.getProductId()), List.of())) {
+                if (entry.contains(query.getFechaAplicacion())) {
+                    candidateCount++;
+                    if (entry.beats(best)) {
+                        best = entry;
+                    }
+                }
+            }
+            recordCandidates(batchCandidates, candidateCount);
+            resolved.put(query, best != null ? best.toPrices() : new PRICES());
+        }
+    }
+
+    /*
+     * Lee con una sola consulta (sobre el índice de búsqueda, proyectada en PriceEntry) las filas del producto que se
+     * solapan con el rango y construye los tramos con una única pasada de línea de barrido (PriceTimeline.sweep). Como
+     * sólo intervienen las filas vigentes en algún momento del rango, los tramos recortados al rango son los mismos que
+     * los del catálogo.
+     */
+    @Override
+    public List<PriceSegmentDto> getPriceTimeline(long idProd, long idBrand, LocalDateTime desde, LocalDateTime hasta) {
+        List<PriceEntry> entries = priceRepository.findEntriesByDateRangeProductIdBrand(desde, hasta, idProd, idBrand);
 
-        for (PRICES price : pricesList) {
-            if (price.getPriority() > priceFound.getPriority()) {
-                priceFound = price;
+        LocalDateTime hastaExclusive = hasta.plusNanos(1);
+        List<PriceSegmentDto> segments = new ArrayList<>();
+        for (PriceSegment segment : PriceTimeline.sweep(entries)) {
+            LocalDateTime from = segment.from().isBefore(desde) ? desde : segment.from();
+            LocalDateTime until = segment.until().isAfter(hastaExclusive) ? hastaExclusive : segment.until();
+            if (from.isBefore(until)) {
+                segments.add(PricesExamMapper.mapToPriceSegmentDto(new PriceSegment(from, until, segment.price())));
             }
         }
+        return segments;
+    }
 
-        return priceFound;
+    /*
+     * Con el motor en memoria cargado cada producto se resuelve en el índice; si no, una única consulta con todos los
+     * productos (product_id IN (...)) trae los precios vigentes en la fecha y se elige en memoria el de mayor prioridad
+     * de cada producto. El total se suma con importes monetarios (moneta) de la moneda común.
+     */
+    @Override
+    public BasketDto priceBasket(long idBrand, LocalDateTime fechaApli, List<Long> idProds) {
+        Set<Long> distinctProds = new LinkedHashSet<>(idProds);
+        Map<Long, PriceEntry> bestByProduct = new HashMap<>();
+        if (priceResolutionEngine != null && priceResolutionEngine.isReady()) {
+            for (Long idProd : distinctProds) {
+                priceResolutionEngine.resolve(fechaApli, idProd, idBrand).ifPresent(entry -> bestByProduct.put(idProd, entry));
+            }
+        } else if (!distinctProds.isEmpty()) {
+            List<PRICES> pricesList = priceRepository.findByDateRangeProductIdsBrandIds(fechaApli, fechaApli, distinctProds, List.of(idBrand));
+            recordCandidates(batchCandidates, pricesList.size());
+            for (PRICES price : pricesList) {
+                PriceEntry entry = PriceEntry.of(price);
+                bestByProduct.merge(entry.productId(), entry, (current, candidate) -> candidate.beats(current) ? candidate : current);
+            }
+        }
+
+        List<PricesExamDto> items = new ArrayList<>(idProds.size());
+        List<Long> unpricedProds = new ArrayList<>();
+        MonetaryAmount total = null;
+        for (Long idProd : idProds) {
+            PriceEntry entry = bestByProduct.get(idProd);
+            if (entry == null) {
+                items.add(new PricesExamDto(idProd, idBrand, 0, 0, null, null));
+                unpricedProds.add(idProd);
+                continue;
+            }
+            items.add(PricesExamMapper.mapToPricesExamDto(entry));
+
+            MonetaryAmount amount = Money.of(entry.price(), entry.curr());
+            if (total != null && !total.getCurrency().equals(amount.getCurrency())) {
+                throw new CurrencyMismatchException("Basket mixes currencies " + total.getCurrency()
+                        + " and " + amount.getCurrency() + " (product " + idProd + ")");
+            }
+            total = total == null ? amount : total.add(amount);
+        }
+
+        return new BasketDto(idBrand, fechaApli, items, unpricedProds,
+                total == null ? BigDecimal.ZERO : total.with(Monetary.getDefaultRounding()).getNumber().numberValue(BigDecimal.class),
+                total == null ? null : total.getCurrency().getCurrencyCode());
+    }
+
+    private static void recordCandidates(DistributionSummary summary, int candidateCount) {
+        if (summary != null) {
+            summary.record(candidateCount);
+        }
     }
 }
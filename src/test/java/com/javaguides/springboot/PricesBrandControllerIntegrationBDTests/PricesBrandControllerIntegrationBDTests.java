@@ -1,15 +1,27 @@
 package com.javaguides.springboot.PricesBrandControllerIntegrationBDTests;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.javaguides.springboot.config.SqlCountResponseAdvice;
+import com.javaguides.springboot.dto.BrandDto;
+import com.javaguides.springboot.dto.PricesDto;
 import com.javaguides.springboot.model.PRICES;
 import com.javaguides.springboot.repository.BrandRepository;
 import com.javaguides.springboot.repository.PriceRepository;
 import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,8 +49,17 @@ import java.util.List;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 @Transactional
 public class PricesBrandControllerIntegrationBDTests {
+
+    /*
+     * Sentencias SQL admitidas al crear un precio: SELECT de la marca, SELECT del precio, INSERT del precio, UPDATE y
+     * SELECT de la versión del catálogo e INSERT en el registro de cambios, más la consulta de la secuencia de precios,
+     * que sólo se hace una vez cada PRICES.ID_ALLOCATION_SIZE inserciones.
+     */
+    private static final int SAVE_PRICE_SQL_BUDGET = 7;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -162,4 +183,146 @@ public class PricesBrandControllerIntegrationBDTests {
         Assertions.assertThat(listPricesDB.get(0).getBrand().getId()).isEqualTo(1);
         Assertions.assertThat(listPricesDB.get(0).getPriceId()).isEqualTo(35455);
     }
+
+    // Importación masiva CSV: las filas válidas se insertan por lotes y las no válidas se informan como rechazos
+    @DisplayName("Test import: importación masiva CSV de precios con filas rechazadas")
+    @Test
+    public void givenCsvUpload_whenImportPrices_thenInsertValidRowsAndReportRejects() throws Exception {
+        // given - precondition or setup
+        String csv = "BRAND_ID,START_DATE,END_DATE,PRICE_LIST,PRODUCT_ID,PRIORITY,PRICE,CURR\n"
+                + "1,2021-01-01 00:00:00,2021-12-31 23:59:59,5,99001,0,10.00,EUR\n"
+                + "1,2021-01-01 00:00:00,2021-06-30 23:59:59,6,99001,1,8.50,EUR\n"
+                + "999,2021-01-01 00:00:00,2021-12-31 23:59:59,5,99002,0,10.00,EUR\n"
+                + "1,2021-12-31 00:00:00,2021-01-01 00:00:00,5,99003,0,10.00,EUR\n"
+                + "1,not-a-date\n";
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/prices/import")
+                .contentType("text/csv")
+                .content(csv));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rowsRead").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rowsImported").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rowsRejected").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejects[0].line").value(4));
+
+        List<PRICES> listPricesDB = priceRepository.findByDateRequestIdProductIdBrand(
+                LocalDateTime.of(2021, Month.MARCH, 1, 10, 0, 0), 99001, 1);
+        Assertions.assertThat(listPricesDB.size()).isEqualTo(2);
+    }
+
+    // Métricas: tras una consulta de precio, /actuator/prometheus publica los histogramas de latencia y de candidatos
+    @DisplayName("Test metrics: métricas de la consulta de precio en formato Prometheus")
+    @Test
+    public void givenPriceLookup_whenScrapePrometheus_thenExposeLatencyAndCandidateHistograms() throws Exception {
+        // given - precondition or setup
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/prices/fechaAppli/2020-06-14T16:00:00/35455/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // when - action or the behavior that we are going test
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then - verify the output
+        Assertions.assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/prices/fechaAppli/{fechaAplicacion}/{prodId}/{brandId}\"")
+                .contains("prices_service_seconds_bucket")
+                .contains("method=\"findPriceSegmentAt\"")
+                .contains("prices_resolution_candidates_rows_bucket")
+                .contains("spring_data_repository_invocations_seconds_bucket");
+    }
+
+    // Presupuesto de SQL: crear un precio no debe volver a consultar la marca ni cargar sus precios (N+1)
+    @DisplayName("Test SQL budget: sentencias SQL al crear un precio")
+    @Test
+    public void givenNewPrice_whenCreatePrice_thenStayWithinSqlBudget() throws Exception {
+        // given - precondition or setup
+        PricesDto pricesDto = new PricesDto(0, 1, LocalDateTime.of(2022, Month.JANUARY, 1, 0, 0, 0),
+                LocalDateTime.of(2022, Month.DECEMBER, 31, 23, 59, 59), 7, 99010, 0, 12.00, "EUR");
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/prices/price")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pricesDto)));
+
+        // then - verify the output
+        String sqlCount = response.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getHeader(SqlCountResponseAdvice.SQL_COUNT_HEADER);
+        Assertions.assertThat(sqlCount).isNotNull();
+        Assertions.assertThat(Integer.parseInt(sqlCount)).isLessThanOrEqualTo(SAVE_PRICE_SQL_BUDGET);
+    }
+
+    // Caché HTTP: la consulta de precio lleva ETag y max-age, una petición condicional con esa ETag devuelve 304 y la
+    // misma ETag en la consulta de otra fecha no
+    @DisplayName("Test HTTP caching: ETag, Cache-Control y 304 de la consulta de precio")
+    @Test
+    public void givenPriceETag_whenConditionalRequest_thenReturnNotModified() throws Exception {
+        // given - precondition or setup
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/prices/fechaAppli/2020-06-14T16:00:00/35455/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, Matchers.startsWith("max-age=")))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.EXPIRES))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertThat(eTag).isNotNull();
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/prices/fechaAppli/2020-06-14T16:00:00/35455/1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+        ResultActions otherDate = mockMvc.perform(MockMvcRequestBuilders.get("/api/prices/fechaAppli/2020-06-14T10:00:00/35455/1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        otherDate.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.priceList").value(1));
+    }
+
+    // Negociación de contenido: con Accept: application/cbor el listado de precios se devuelve en CBOR con los mismos campos
+    @DisplayName("Test CBOR: listado de precios en formato binario")
+    @Test
+    public void givenCborAccept_whenGetAllPrices_thenReturnCborPrices() throws Exception {
+        // given - precondition or setup
+        CBORMapper cborMapper = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/prices/")
+                .param("size", "2")
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // then - verify the output
+        byte[] body = response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        PricesDto[] prices = cborMapper.readValue(body, PricesDto[].class);
+        Assertions.assertThat(prices).hasSize(2);
+        Assertions.assertThat(prices[0].getStartDate()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0));
+        Assertions.assertThat(prices[0].getPrice()).isEqualTo(35.50);
+    }
+
+    // Alta de marca contra los datos de data.sql: el ID generado no debe chocar con el de la marca inicial
+    @DisplayName("Test create brand: ID generado después de la marca de data.sql")
+    @Test
+    public void givenSeedBrand_whenCreateBrand_thenAssignNewId() throws Exception {
+        // given - precondition or setup
+        BrandDto brandDto = new BrandDto(0, "Brand type Two Example", "Brand type Two Example");
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/brands")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(brandDto)));
+
+        // then - verify the output
+        String body = response.andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        BrandDto savedBrand = objectMapper.readValue(body, BrandDto.class);
+        Assertions.assertThat(savedBrand.getId()).isGreaterThan(1);
+        Assertions.assertThat(brandRepository.findById(1L)).get()
+                .extracting(brand -> brand.getName()).isEqualTo("Brand type One Example");
+    }
 }
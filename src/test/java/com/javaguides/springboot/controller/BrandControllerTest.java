@@ -0,0 +1,117 @@
+package com.javaguides.springboot.controller;
+
+import com.javaguides.springboot.dto.BrandSummaryDto;
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.service.PriceBrandService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+
+/*
+ * Clase BrandControllerTest usada para comprobar con Mocks el correcto funcionamiento de
+ *  /src/main/java/com.javaguides.springboot/controller/BrandController
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BrandControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PriceBrandService priceBrandService;
+
+    /*
+     * Test givenBrandSummaries_whenGetAllBrands_thenReturnBrandsWithPriceCount
+     *   --> Entrada: lista de resúmenes de marca
+     *   --> Proceso:
+     *       --> Se simula con Mocks que se devuelven las marcas con su número de precios
+     *   --> Salida:
+     *       --> Lista de marcas con priceCount
+     */
+    // Junit test for get all brands with price counts
+    @DisplayName("Junit test for get all brands with price counts")
+    @Test
+    public void givenBrandSummaries_whenGetAllBrands_thenReturnBrandsWithPriceCount() throws Exception {
+        // given - precondition or setup
+        BDDMockito.given(priceBrandService.getBrandSummaries()).willReturn(List.of(
+                new BrandSummaryDto(1, "ZARA", "Example description", 4),
+                new BrandSummaryDto(2, "Example", "Brand without prices", 0)));
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/brands"));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].priceCount", CoreMatchers.is(4)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].priceCount", CoreMatchers.is(0)));
+    }
+
+    /*
+     * Test givenBrandWithPrices_whenGetBrandPrices_thenReturnFirstPageAndNextCursor
+     *   --> Entrada: ID de marca y tamaño de página 1
+     *   --> Proceso:
+     *       --> Se simula con Mocks que la marca existe y tiene más precios que el tamaño de página
+     *   --> Salida:
+     *       --> Primera página de precios de la marca y cabecera X-Next-Cursor
+     */
+    // Junit test for get the paginated prices of a brand
+    @DisplayName("Junit test for get the paginated prices of a brand")
+    @Test
+    public void givenBrandWithPrices_whenGetBrandPrices_thenReturnFirstPageAndNextCursor() throws Exception {
+        // given - precondition or setup
+        BRAND brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        PRICES pricesOne = PRICES.builder()
+                .priceId(1)
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,0,0,0))
+                .endDate( LocalDateTime.of(2020, Month.DECEMBER, 31,23,59,59))
+                .priceList(1)
+                .productId(35455)
+                .priority(0)
+                .price(35.50)
+                .curr("EUR").build();
+
+        BDDMockito.given(priceBrandService.getBrandById(1L)).willReturn(Optional.of(brandOne));
+        BDDMockito.given(priceBrandService.getPrices(ArgumentMatchers.argThat((PriceFilterDto filter) -> filter.getBrandId() == 1L),
+                        ArgumentMatchers.eq(0L), ArgumentMatchers.eq(1)))
+                .willReturn(new SliceImpl<>(List.of(pricesOne), PageRequest.ofSize(1), true));
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/brands/1/prices").param("size", "1"));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].brandId", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.header().exists(PriceBrandController.NEXT_CURSOR_HEADER));
+    }
+}
@@ -3,6 +3,8 @@ package com.javaguides.springboot.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javaguides.springboot.dto.PriceFilterDto;
+import com.javaguides.springboot.dto.PriceQueryDto;
 import com.javaguides.springboot.dto.PricesDto;
 import com.javaguides.springboot.mapper.PricesMapper;
 import com.javaguides.springboot.model.BRAND;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -21,8 +24,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.MockBeans;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvcResultMatchersDsl;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -153,7 +158,8 @@ public class PriceBrandControllerTest {
         ArrayList<PRICES> listPrices = new ArrayList<PRICES>();
         listPrices.add(pricesOne);
         listPrices.add(pricesTwo);
-        BDDMockito.given(priceBrandService.getAllPrices()).willReturn(listPrices);
+        BDDMockito.given(priceBrandService.getPrices(any(PriceFilterDto.class), ArgumentMatchers.eq(0L), ArgumentMatchers.anyInt()))
+                .willReturn(new SliceImpl<>(listPrices));
 
         // when - action or the behavior that we are going test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.
@@ -413,4 +419,91 @@ public class PriceBrandControllerTest {
         response.andExpect(MockMvcResultMatchers.status().isOk())
                 .andDo(print());
     }
+
+    /*
+     * Test givenPrices_whenExportPrices_thenReturnNdjsonLines()
+     *   --> Entrada: Precios recorridos por el servicio
+     *   --> Proceso:
+     *       --> Se simula con Mocks que el servicio entrega dos precios al exportar el catálogo
+     *   --> Salida:
+     *       --> Respuesta application/x-ndjson con un PricesDto por línea
+     */
+    // Junit test for export all prices as NDJSON
+    @DisplayName("Junit test for export all prices as NDJSON")
+    @Test
+    public void givenPrices_whenExportPrices_thenReturnNdjsonLines() throws Exception {
+        // given - precondition or setup
+        BRAND brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        List<PRICES> listPrices = new ArrayList<>();
+        for (long priceId = 1; priceId <= 2; priceId++) {
+            listPrices.add(PRICES.builder()
+                    .priceId(priceId)
+                    .brand(brandOne)
+                    .startDate( LocalDateTime.of(2020, Month.JUNE, 14,0,0,0))
+                    .endDate( LocalDateTime.of(2020, Month.DECEMBER, 31,23,59,59))
+                    .priceList(1)
+                    .productId(35455)
+                    .priority(0)
+                    .price(35.50)
+                    .curr("EUR").build());
+        }
+
+        BDDMockito.given(priceBrandService.exportPrices(any())).willAnswer(invocation -> {
+            java.util.function.Consumer<PRICES> consumer = invocation.getArgument(0);
+            listPrices.forEach(consumer);
+            return (long) listPrices.size();
+        });
+
+        // when - action or the behavior that we are going test
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/prices/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON));
+
+        String[] lines = response.andReturn().getResponse().getContentAsString().split("\n");
+        Assertions.assertThat(lines).hasSize(2);
+        for (int i = 0; i < lines.length; i++) {
+            Assertions.assertThat(lines[i]).startsWith("{").endsWith("}");
+            Assertions.assertThat(objectMapper.readValue(lines[i], PricesDto.class).getPriceId()).isEqualTo(i + 1);
+        }
+    }
+
+    /*
+     * Test givenQueryWithoutDate_whenGetPricesByCriteriaBatch_thenReturn400()
+     *   --> Entrada: lote con una consulta sin fecha de aplicación y otra nula
+     *   --> Proceso:
+     *       --> Se envía el lote a /api/prices/fechaAppli/batch
+     *   --> Salida:
+     *       --> Pagina BAD_REQUEST, sin llamar al servicio
+     */
+    // Junit test for batch price lookup with invalid queries
+    @DisplayName("Junit test for batch price lookup with invalid queries")
+    @Test
+    public void givenQueryWithoutDate_whenGetPricesByCriteriaBatch_thenReturn400() throws Exception {
+        // given - precondition or setup
+        String withoutDate = "[{\"productId\":35455,\"brandId\":1}]";
+        String nullQuery = "[{\"fechaAplicacion\":\"2020-06-14T10:00:00\",\"productId\":35455,\"brandId\":1},null]";
+
+        // when - action or the behavior that we are going test
+        ResultActions responseWithoutDate = mockMvc.perform(MockMvcRequestBuilders.post("/api/prices/fechaAppli/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(withoutDate));
+        ResultActions responseNullQuery = mockMvc.perform(MockMvcRequestBuilders.post("/api/prices/fechaAppli/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(nullQuery));
+
+        // then - verify the output
+        responseWithoutDate.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        responseNullQuery.andExpect(MockMvcResultMatchers.status().isBadRequest());
+        BDDMockito.then(priceBrandService).should(Mockito.never()).findByDateRequestIdProductIdBrand(ArgumentMatchers.<List<PriceQueryDto>>any());
+    }
 }
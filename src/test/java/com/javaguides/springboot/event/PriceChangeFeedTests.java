@@ -0,0 +1,145 @@
+package com.javaguides.springboot.event;
+
+import com.javaguides.springboot.dto.PriceChangeNotificationDto;
+import com.javaguides.springboot.model.PriceKey;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+/*
+ * Clase PriceChangeFeedTests para comprobar la numeración de las notificaciones de PriceChangeFeed y la reanudación
+ * desde un Last-Event-ID con el buffer circular.
+ */
+public class PriceChangeFeedTests {
+
+    private PriceChangeFeed feed;
+
+    /*
+        Ejecución previa a cada tests: feed con un buffer de 3 notificaciones
+     */
+    @BeforeEach
+    public void setup() {
+        feed = new PriceChangeFeed(3, 16, Duration.ofMinutes(1), 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        feed.close();
+    }
+
+    /*
+     * Test givenPublishedChanges_whenSince_thenReturnChangesAfterLastEventId
+     *   --> Entrada: cinco cambios de precios publicados en un buffer de 3
+     *   --> Proceso:
+     *       --> Se piden las notificaciones posteriores a la 2
+     *   --> Salida:
+     *       --> Secuencias 3, 4 y 5 con el tipo y la clave de cada cambio
+     */
+    @DisplayName("JUnit test for resume the price change feed from Last-Event-ID")
+    @Test
+    public void givenPublishedChanges_whenSince_thenReturnChangesAfterLastEventId() {
+        // given - precondition or setup
+        PriceKey key = new PriceKey(1, 35455);
+        feed.publish(new PriceChangeEvent.PriceCreated(1, key));
+        feed.publish(new PriceChangeEvent.PriceCreated(2, key));
+        feed.publish(new PriceChangeEvent.PriceUpdated(2, key, new PriceKey(1, 35456)));
+        feed.publish(new PriceChangeEvent.PriceDeleted(1, key));
+        feed.publish(new PriceChangeEvent.BrandDeleted(1, Set.of(key)));
+
+        // when - action or the behavior that we are going test
+        Optional<List<PriceChangeNotificationDto>> pending = feed.since(2);
+
+        // then - verify the output
+        Assertions.assertThat(feed.lastSequence()).isEqualTo(5);
+        Assertions.assertThat(pending).isPresent();
+        Assertions.assertThat(pending.get()).extracting(PriceChangeNotificationDto::getSequence).containsExactly(3L, 4L, 5L);
+        Assertions.assertThat(pending.get()).extracting(PriceChangeNotificationDto::getType)
+                .containsExactly("PRICE_UPDATED", "PRICE_DELETED", "BRAND_DELETED");
+        Assertions.assertThat(pending.get().get(0).getKeys()).containsExactlyInAnyOrder(key, new PriceKey(1, 35456));
+        Assertions.assertThat(pending.get().get(2).getBrandId()).isEqualTo(1L);
+        Assertions.assertThat(feed.since(5)).contains(List.of());
+    }
+
+    /*
+     * Test givenLastEventIdOutOfBuffer_whenSince_thenReturnEmpty
+     *   --> Entrada: cinco cambios publicados en un buffer de 3
+     *   --> Proceso:
+     *       --> Se piden las notificaciones posteriores a la 1 (ya expulsada) y a la 9 (de antes de un reinicio)
+     *   --> Salida:
+     *       --> Vacío en los dos casos: el cliente debe volver a leer los precios
+     */
+    @DisplayName("JUnit test for Last-Event-ID outside the price change feed buffer")
+    @Test
+    public void givenLastEventIdOutOfBuffer_whenSince_thenReturnEmpty() {
+        // given - precondition or setup
+        for (long priceId = 1; priceId <= 5; priceId++) {
+            feed.publish(new PriceChangeEvent.PriceCreated(priceId, new PriceKey(1, 35455)));
+        }
+
+        // when - action or the behavior that we are going test
+        Optional<List<PriceChangeNotificationDto>> evicted = feed.since(1);
+        Optional<List<PriceChangeNotificationDto>> future = feed.since(9);
+
+        // then - verify the output
+        Assertions.assertThat(evicted).isEmpty();
+        Assertions.assertThat(future).isEmpty();
+    }
+
+    /*
+     * Test givenBlockedSubscriber_whenPublish_thenDisconnectWithoutWaiting
+     *   --> Entrada: feed con colas de 1 notificación y un suscriptor cuyo SseEmitter está bloqueado (otro hilo tiene
+     *       su monitor, como un send() atascado en un socket lento)
+     *   --> Proceso:
+     *       --> Se publican cambios hasta llenar su cola
+     *   --> Salida:
+     *       --> publish() no espera al emitter bloqueado y el suscriptor se desconecta
+     */
+    @DisplayName("JUnit test for disconnect a blocked price feed subscriber without blocking writes")
+    @Test
+    public void givenBlockedSubscriber_whenPublish_thenDisconnectWithoutWaiting() throws Exception {
+        // given - precondition or setup
+        PriceChangeFeed smallQueueFeed = new PriceChangeFeed(8, 1, Duration.ofMinutes(1), 1);
+        SseEmitter emitter = smallQueueFeed.subscribe(null);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread blocker = new Thread(() -> {
+            synchronized (emitter) {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        blocker.start();
+        locked.await();
+
+        try {
+            // when - action or the behavior that we are going test
+            Assertions.assertThat(CompletableFuture.runAsync(() -> {
+                for (long priceId = 1; priceId <= 4; priceId++) {
+                    smallQueueFeed.publish(new PriceChangeEvent.PriceCreated(priceId, new PriceKey(1, 35455)));
+                }
+            })).succeedsWithin(Duration.ofSeconds(5));
+
+            // then - verify the output
+            Assertions.assertThat(smallQueueFeed.subscribers()).isZero();
+            Assertions.assertThat(smallQueueFeed.lastSequence()).isEqualTo(4);
+        } finally {
+            release.countDown();
+            blocker.join();
+            smallQueueFeed.close();
+        }
+    }
+}
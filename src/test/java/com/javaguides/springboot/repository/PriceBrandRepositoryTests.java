@@ -1,37 +1,81 @@
 package com.javaguides.springboot.repository;
 
 
+import com.javaguides.springboot.config.SqlStatementCounter;
+import com.javaguides.springboot.dto.BrandSummaryDto;
+import com.javaguides.springboot.dto.PriceFilterDto;
 import com.javaguides.springboot.model.BRAND;
 import com.javaguides.springboot.model.PRICES;
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PRICE_CHANGE;
+import com.javaguides.springboot.resolution.PriceEntry;
+import com.javaguides.springboot.resolution.PriceSegment;
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /*
  * Clase PriceBrandRepositoryTests para comprobar el correcto funcionamiento PriceRepository y BrandRepository
  */
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.javaguides.springboot.repository.PriceBrandRepositoryTests$LastStatementInspector")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 public class PriceBrandRepositoryTests {
+
+    /*
+     * StatementInspector sólo de estos tests: cuenta como SqlStatementCounter y guarda la última sentencia preparada
+     * en el hilo, para pedir el plan de ejecución del SQL que genera Hibernate.
+     */
+    public static class LastStatementInspector extends SqlStatementCounter {
+
+        private static final ThreadLocal<String> LAST_STATEMENT = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            LAST_STATEMENT.set(sql);
+            return super.inspect(sql);
+        }
+
+        static String takeLastStatement() {
+            String sql = LAST_STATEMENT.get();
+            LAST_STATEMENT.remove();
+            return sql;
+        }
+    }
+
     @Autowired
     private PriceRepository pricesRepository;
 
     @Autowired
     private BrandRepository brandRepository;
 
+    @Autowired
+    private PriceChangeRepository priceChangeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     /*
      * Test givenPricesObjectBrandObject_whenSave_thenReturnSavedPricesBrand
      *   --> Entrada: PriceObject BrandObject a guardar
@@ -377,7 +421,7 @@ public class PriceBrandRepositoryTests {
 
         BRAND brandSave = brandRepository.save(brandOne);
 
-        List<PRICES> listPricesDB = pricesRepository.findByDateRequestIdProductIdBrand(LocalDateTime.of(2020, Month.JULY, 14,10,0,0), 35455, 1);
+        List<PRICES> listPricesDB = pricesRepository.findByDateRequestIdProductIdBrand(LocalDateTime.of(2020, Month.JULY, 14,10,0,0), 35455, brandSave.getId());
 
         // when - action or the behavior that we are going test
         List<BRAND> brandList = brandRepository.findAll();
@@ -388,4 +432,332 @@ public class PriceBrandRepositoryTests {
         // Assertions.assertThat(priceDB).isNotNull();
     }
 
+    /*
+     * Test givenOverlappingPrices_whenFindTopByDateRequestIdProductIdBrand_thenReturnHighestPriorityEntry
+     *   --> Entrada: dos precios solapados del producto 35455 para la brand 1 con distinta prioridad
+     *   --> Proceso:
+     *       --> Se busca la fila ganadora proyectada en PriceEntry (ORDER BY priority DESC, límite 1)
+     *   --> Salida:
+     *       --> Se devuelve la fila del precio de mayor prioridad y vacío fuera de las fechas
+     */
+    // Junit test for top-1 PriceEntry projection of the point-in-time price query
+    @DisplayName("Junit test for top-1 PriceEntry projection of the point-in-time price query")
+    @Test
+    public void givenOverlappingPrices_whenFindTopByDateRequestIdProductIdBrand_thenReturnHighestPriorityEntry(){
+        // given - precondition or setup
+        brandRepository.deleteAll();
+        pricesRepository.deleteAll();
+
+        BRAND brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        PRICES pricesOne = PRICES.builder()
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,0,0,0))
+                .endDate( LocalDateTime.of(2020, Month.DECEMBER, 31,23,59,59))
+                .priceList(1)
+                .productId(35455)
+                .priority(0)
+                .price(35.50)
+                .curr("EUR").build();
+
+        PRICES pricesTwo = PRICES.builder()
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,15,0,0))
+                .endDate( LocalDateTime.of(2020, Month.JUNE, 14,18,30,0))
+                .priceList(2)
+                .productId(35455)
+                .priority(1)
+                .price(25.45)
+                .curr("EUR").build();
+
+        Set<PRICES> pricesSet = new HashSet<>();
+        pricesSet.add(pricesOne);
+        pricesSet.add(pricesTwo);
+        brandOne.setPrices(pricesSet);
+        BRAND brandSave = brandRepository.save(brandOne);
+
+        // when - action or the behavior that we are going test
+        Optional<PriceEntry> priceDB = pricesRepository.findTopByDateRequestIdProductIdBrand(
+                LocalDateTime.of(2020, Month.JUNE, 14,16,0,0), 35455, brandSave.getId());
+        Optional<PriceEntry> noPriceDB = pricesRepository.findTopByDateRequestIdProductIdBrand(
+                LocalDateTime.of(2021, Month.JANUARY, 1,0,0,0), 35455, brandSave.getId());
+
+        // then - verify the output
+        Assertions.assertThat(priceDB).isPresent();
+        Assertions.assertThat(priceDB.get().priceList()).isEqualTo(2);
+        Assertions.assertThat(priceDB.get().priority()).isEqualTo(1);
+        Assertions.assertThat(priceDB.get().price()).isEqualTo(25.45);
+        Assertions.assertThat(priceDB.get().brandId()).isEqualTo(brandSave.getId());
+        Assertions.assertThat(noPriceDB).isEmpty();
+    }
+
+    /*
+     * Test givenSeedPrices_whenFindSegmentBounds_thenReturnNeighbourTransitionsOfTheWinner
+     *   --> Entrada: los 4 precios de data.sql (tarifa 1 todo el año con prioridad 0 y las tarifas 2, 3 y 4 con prioridad 1)
+     *   --> Proceso:
+     *       --> Se obtiene el ganador con la consulta de una fila y los límites de su tramo con la consulta de agregados
+     *   --> Salida:
+     *       --> La tarifa 1 se aplica entre el fin de la tarifa 2 y el inicio de la 3, y entre el fin de la 3 y el inicio de la 4;
+     *           la tarifa 2 no tiene ningún precio que le gane, así que su tramo es toda su vigencia
+     */
+    // Junit test for the segment bounds aggregate query
+    @DisplayName("Junit test for the segment bounds aggregate query")
+    @Test
+    public void givenSeedPrices_whenFindSegmentBounds_thenReturnNeighbourTransitionsOfTheWinner(){
+        // given - precondition or setup
+        LocalDateTime evening = LocalDateTime.of(2020, Month.JUNE, 14,20,0,0);
+        LocalDateTime noon = LocalDateTime.of(2020, Month.JUNE, 15,12,0,0);
+        LocalDateTime afternoon = LocalDateTime.of(2020, Month.JUNE, 14,16,0,0);
+
+        // when - action or the behavior that we are going test
+        PriceSegment eveningSegment = segmentAt(evening);
+        PriceSegment noonSegment = segmentAt(noon);
+        PriceSegment afternoonSegment = segmentAt(afternoon);
+
+        // then - verify the output
+        Assertions.assertThat(eveningSegment.price().priceList()).isEqualTo(1);
+        Assertions.assertThat(eveningSegment.from()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14,18,30,0).plusNanos(1));
+        Assertions.assertThat(eveningSegment.until()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 15,0,0,0));
+        Assertions.assertThat(noonSegment.price().priceList()).isEqualTo(1);
+        Assertions.assertThat(noonSegment.from()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 15,11,0,0).plusNanos(1));
+        Assertions.assertThat(noonSegment.until()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 15,16,0,0));
+        Assertions.assertThat(afternoonSegment.price().priceList()).isEqualTo(2);
+        Assertions.assertThat(afternoonSegment.from()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14,15,0,0));
+        Assertions.assertThat(afternoonSegment.until()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14,18,30,0).plusNanos(1));
+    }
+
+    private PriceSegment segmentAt(LocalDateTime fechaApli) {
+        PriceEntry winner = pricesRepository.findTopByDateRequestIdProductIdBrand(fechaApli, 35455, 1).orElseThrow();
+        return pricesRepository.findSegmentBounds(fechaApli, 35455, 1, winner.startDate(), winner.endDate(),
+                winner.priority(), winner.priceId()).around(winner);
+    }
+
+    /*
+     * Test givenBrandsWithPrices_whenFindSummaries_thenReturnPriceCounts
+     *   --> Entrada: una marca con dos precios y otra sin precios
+     *   --> Proceso:
+     *       --> Se cuentan los precios de cada marca con la consulta agregada, sin cargar los precios
+     *   --> Salida:
+     *       --> Resumen de cada marca con su número de precios (0 si no tiene)
+     */
+    // Junit test for brand summaries with aggregate price counts
+    @DisplayName("Junit test for brand summaries with aggregate price counts")
+    @Test
+    public void givenBrandsWithPrices_whenFindSummaries_thenReturnPriceCounts(){
+        // given - precondition or setup
+        brandRepository.deleteAll();
+        pricesRepository.deleteAll();
+
+        BRAND brandOne = BRAND.builder()
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        Set<PRICES> pricesSet = new HashSet<>();
+        for (int priceList = 1; priceList <= 2; priceList++) {
+            pricesSet.add(PRICES.builder()
+                    .brand(brandOne)
+                    .startDate( LocalDateTime.of(2020, Month.JUNE, 14,0,0,0))
+                    .endDate( LocalDateTime.of(2020, Month.DECEMBER, 31,23,59,59))
+                    .priceList(priceList)
+                    .productId(35455)
+                    .priority(0)
+                    .price(35.50)
+                    .curr("EUR").build());
+        }
+        brandOne.setPrices(pricesSet);
+        BRAND brandSave = brandRepository.save(brandOne);
+
+        BRAND brandEmpty = brandRepository.save(BRAND.builder()
+                .name("Empty")
+                .description("Brand without prices")
+                .build());
+
+        // when - action or the behavior that we are going test
+        List<BrandSummaryDto> summaries = brandRepository.findSummaries();
+        Optional<BrandSummaryDto> summary = brandRepository.findSummaryById(brandSave.getId());
+
+        // then - verify the output
+        Assertions.assertThat(summaries).extracting(BrandSummaryDto::getId).contains(brandSave.getId(), brandEmpty.getId());
+        Assertions.assertThat(summaries).filteredOn(brand -> brand.getId() == brandEmpty.getId())
+                .extracting(BrandSummaryDto::getPriceCount).containsExactly(0L);
+        Assertions.assertThat(summary).isPresent();
+        Assertions.assertThat(summary.get().getPriceCount()).isEqualTo(2);
+        Assertions.assertThat(summary.get().getName()).isEqualTo("Example");
+    }
+
+    /*
+     * Test givenPricesAndFilter_whenFindPage_thenReturnPagesByPriceId
+     *   --> Entrada: filtro por marca y tarifa, cursor (último priceId) y tamaño de página
+     *   --> Proceso:
+     *       --> Se recorren por clave (priceId) los precios de la base de datos que cumplen el filtro
+     *   --> Salida:
+     *       --> Páginas ordenadas por priceId, sin repetir ni saltar precios
+     */
+    // Junit test for keyset pagination of PRICES with filters
+    @DisplayName("Junit test for keyset pagination of PRICES with filters")
+    @Test
+    public void givenPricesAndFilter_whenFindPage_thenReturnPagesByPriceId(){
+        // given - precondition or setup
+        brandRepository.deleteAll();
+        pricesRepository.deleteAll();
+
+        BRAND brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        Set<PRICES> pricesSet = new HashSet<>();
+        for (int priceList = 1; priceList <= 4; priceList++) {
+            pricesSet.add(PRICES.builder()
+                    .brand(brandOne)
+                    .startDate( LocalDateTime.of(2020, Month.JUNE, 14,0,0,0))
+                    .endDate( LocalDateTime.of(2020, Month.DECEMBER, 31,23,59,59))
+                    .priceList(priceList % 2)
+                    .productId(35455)
+                    .priority(priceList)
+                    .price(35.50)
+                    .curr("EUR").build());
+        }
+        brandOne.setPrices(pricesSet);
+        BRAND brandSave = brandRepository.save(brandOne);
+
+        PriceFilterDto filter = PriceFilterDto.builder()
+                .brandId(brandSave.getId())
+                .priceList(1)
+                .activeAt(LocalDateTime.of(2020, Month.JULY, 14,10,0,0))
+                .build();
+
+        // when - action or the behavior that we are going test
+        List<PRICES> firstPage = pricesRepository.findPage(filter, 0, 1);
+        List<PRICES> secondPage = pricesRepository.findPage(filter, firstPage.get(0).getPriceId(), 1);
+        List<PRICES> thirdPage = pricesRepository.findPage(filter, secondPage.get(0).getPriceId(), 1);
+
+        // then - verify the output
+        Assertions.assertThat(firstPage.size()).isEqualTo(1);
+        Assertions.assertThat(secondPage.size()).isEqualTo(1);
+        Assertions.assertThat(secondPage.get(0).getPriceId()).isGreaterThan(firstPage.get(0).getPriceId());
+        Assertions.assertThat(secondPage.get(0).getPriceList()).isEqualTo(1);
+        Assertions.assertThat(thirdPage).isEmpty();
+    }
+
+    /*
+     * Test givenLookupQuery_whenExplain_thenUsesCompositeLookupIndex
+     *   --> Entrada: SQL que genera Hibernate para PriceRepository.findByDateRequestIdProductIdBrand, capturado con
+     *       LastStatementInspector
+     *   --> Proceso:
+     *       --> Se pide a H2 el plan de ejecución (EXPLAIN) de esa sentencia, con cada parámetro "?" enlazado según la
+     *           columna con la que se compara
+     *   --> Salida:
+     *       --> El plan usa el índice compuesto PRICES.LOOKUP_INDEX
+     */
+    // Junit test for H2 query plan of the point-in-time price query
+    @DisplayName("Junit test for H2 query plan of the point-in-time price query")
+    @Test
+    public void givenLookupQuery_whenExplain_thenUsesCompositeLookupIndex(){
+        // given - precondition or setup
+        LocalDateTime fechaApli = LocalDateTime.of(2020, Month.JUNE, 14,10,0,0);
+        LastStatementInspector.takeLastStatement();
+        pricesRepository.findByDateRequestIdProductIdBrand(fechaApli, 35455, 1);
+        String lookupSql = LastStatementInspector.takeLastStatement();
+        Assertions.assertThat(lookupSql).isNotNull();
+
+        // when - action or the behavior that we are going test
+        String plan = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + lookupSql)) {
+                Matcher parameters = Pattern.compile("(\\w+)\\s*(?:=|<=|>=|<|>)\\s*\\?").matcher(lookupSql);
+                int index = 0;
+                while (parameters.find()) {
+                    String column = parameters.group(1).toLowerCase();
+                    Object value = switch (column) {
+                        case "brand_id" -> 1L;
+                        case "product_id" -> 35455L;
+                        case "start_date", "end_date" -> Timestamp.valueOf(fechaApli);
+                        default -> throw new IllegalStateException("Unexpected parameter column " + column + " in " + lookupSql);
+                    };
+                    statement.setObject(++index, value);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+
+        // then - verify the output
+        Assertions.assertThat(plan).containsIgnoringCase(PRICES.LOOKUP_INDEX);
+    }
+
+    /*
+     * Test givenSeedData_whenSaveNewPrices_thenAssignSequenceIdsAfterSeedIds
+     *   --> Entrada: 3 PriceObject nuevos de la marca 1 de data.sql
+     *   --> Proceso:
+     *       --> Se GUARDAN con saveAll; los ID salen de la secuencia PRICES.ID_SEQUENCE
+     *   --> Salida:
+     *       --> ID consecutivos a partir del último de data.sql, sin chocar con los datos iniciales
+     */
+    // Junit test for sequence-based price IDs
+    @DisplayName("Junit test for sequence-based price IDs")
+    @Test
+    public void givenSeedData_whenSaveNewPrices_thenAssignSequenceIdsAfterSeedIds(){
+        // given - precondition or setup
+        BRAND brand = brandRepository.findById(1L).orElseThrow();
+        List<PRICES> prices = new ArrayList<>();
+        for (int priceList = 1; priceList <= 3; priceList++) {
+            prices.add(PRICES.builder()
+                    .brand(brand)
+                    .startDate( LocalDateTime.of(2021, Month.JANUARY, 1,0,0,0))
+                    .endDate( LocalDateTime.of(2021, Month.DECEMBER, 31,23,59,59))
+                    .priceList(priceList)
+                    .productId(99001)
+                    .priority(0)
+                    .price(10.00)
+                    .curr("EUR").build());
+        }
+
+        // when - action or the behavior that we are going test
+        List<PRICES> savedPrices = pricesRepository.saveAll(prices);
+        entityManager.flush();
+
+        // then - verify the output
+        Assertions.assertThat(savedPrices).extracting(PRICES::getPriceId).containsExactly(5L, 6L, 7L);
+        Assertions.assertThat(pricesRepository.count()).isEqualTo(7);
+    }
+
+    /*
+     * Test givenSeedChangeLog_whenRecordChanges_thenEachTakesNewCatalogVersion
+     *   --> Entrada: registro de cambios de data.sql (versión 1) y dos cambios: el borrado del precio 1 y un precio nuevo 50
+     *   --> Proceso:
+     *       --> Se registran los cambios con las sentencias JPQL de PriceChangeRepository
+     *   --> Salida:
+     *       --> El precio 1 queda como lápida en la versión 2, el precio 50 se crea en la versión 3 y la versión actual es 3
+     */
+    // Junit test for record changes in new catalog versions
+    @DisplayName("Junit test for record changes in new catalog versions")
+    @Test
+    public void givenSeedChangeLog_whenRecordChanges_thenEachTakesNewCatalogVersion(){
+        // given - precondition or setup
+        long seedVersion = priceChangeRepository.findCatalogVersion();
+
+        // when - action or the behavior that we are going test
+        priceChangeRepository.recordChange(1L, true);
+        priceChangeRepository.recordCreated(50L);
+        entityManager.clear();
+
+        // then - verify the output
+        Assertions.assertThat(seedVersion).isEqualTo(1L);
+        Assertions.assertThat(priceChangeRepository.findCatalogVersion()).isEqualTo(3L);
+        Assertions.assertThat(priceChangeRepository.findById(1L)).get()
+                .extracting(PRICE_CHANGE::getCatalogVersion, PRICE_CHANGE::isDeleted)
+                .containsExactly(2L, true);
+        Assertions.assertThat(priceChangeRepository.findById(50L)).get()
+                .extracting(PRICE_CHANGE::getCatalogVersion, PRICE_CHANGE::isDeleted)
+                .containsExactly(3L, false);
+        Assertions.assertThat(priceChangeRepository.count()).isEqualTo(5);
+    }
 }
@@ -0,0 +1,254 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+
+/*
+ * Clase ColumnarPriceStoreTests para comprobar que el almacén columnar y ColumnarPriceEngine resuelven los mismos
+ * precios que el motor "timeline", que las escrituras posteriores a la carga se ven antes y después de compactar
+ * y que el snapshot en disco se proyecta en memoria con el mismo contenido.
+ */
+public class ColumnarPriceStoreTests {
+
+    private List<PRICES> catalog;
+
+    /*
+        Ejecución previa a cada tests: se construye el catálogo del examen para la brand 1 y el producto 35455
+     */
+    @BeforeEach
+    public void setup() {
+        BRAND brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        catalog = List.of(
+                price(brandOne, 1, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 1, 0, 35.50),
+                price(brandOne, 2, LocalDateTime.of(2020, Month.JUNE, 14, 15, 0, 0), LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0), 2, 1, 25.45),
+                price(brandOne, 3, LocalDateTime.of(2020, Month.JUNE, 15, 0, 0, 0), LocalDateTime.of(2020, Month.JUNE, 15, 11, 0, 0), 3, 1, 30.50),
+                price(brandOne, 4, LocalDateTime.of(2020, Month.JUNE, 15, 16, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 4, 1, 38.95));
+    }
+
+    /*
+     * Test givenExamCatalog_whenFind_thenSameAsTimeline
+     *   --> Entrada: catálogo del examen y fechas de los test del enunciado, de los extremos y de fuera de vigencia
+     *   --> Proceso:
+     *       --> Se resuelve cada fecha con ColumnarPriceStore.find y con TimelinePriceEngine
+     *   --> Salida:
+     *       --> Ambos devuelven el mismo precio (o ninguno) y el almacén ocupa BYTES_PER_ROW bytes por fila
+     */
+    @DisplayName("JUnit test for ColumnarPriceStore find against timeline engine")
+    @Test
+    public void givenExamCatalog_whenFind_thenSameAsTimeline() {
+        // given - precondition or setup
+        TimelinePriceEngine timeline = new TimelinePriceEngine();
+        timeline.load(catalog);
+        List<LocalDateTime> fechas = List.of(
+                LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 14, 21, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 15, 10, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 16, 21, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0),
+                LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0, 1),
+                LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59),
+                LocalDateTime.of(2021, Month.JANUARY, 1, 0, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 13, 23, 59, 59));
+
+        // when - action or the behavior that we are going test
+        ColumnarPriceStore store = ColumnarPriceStore.of(catalog.stream().map(PriceEntry::of).toList());
+
+        // then - verify the output
+        for (LocalDateTime fecha : fechas) {
+            int row = store.find(fecha, 35455, 1);
+            Long expected = timeline.resolve(fecha, 35455, 1).map(PriceEntry::priceId).orElse(null);
+            Assertions.assertThat(row < 0 ? null : store.priceId(row)).as(fecha.toString()).isEqualTo(expected);
+        }
+        Assertions.assertThat(store.find(LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0), 35455, 2)).isEqualTo(-1);
+        Assertions.assertThat(store.find(LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0), 35456, 1)).isEqualTo(-1);
+
+        int row = store.find(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0), 35455, 1);
+        Assertions.assertThat(store.priceMinor(row)).isEqualTo(2545);
+        Assertions.assertThat(store.currency(row)).isEqualTo("EUR");
+        Assertions.assertThat(store.toEntry(row)).isEqualTo(PriceEntry.of(catalog.get(1)));
+        Assertions.assertThat(store.offHeapBytes()).isEqualTo(4L * ColumnarPriceStore.BYTES_PER_ROW);
+        Assertions.assertThat(ColumnarPriceStore.BYTES_PER_ROW).isLessThan(ColumnarPriceStore.ENTITY_BYTES_PER_ROW_ESTIMATE);
+    }
+
+    /*
+     * Test givenExamCatalog_whenSegmentAt_thenSameAsTimeline
+     *   --> Entrada: motor "columnar" con el catálogo del examen y una escritura de la clave (1, 35456) en la capa
+     *   --> Proceso:
+     *       --> Se busca el tramo de precio efectivo de varias fechas en el motor "columnar" y en TimelinePriceEngine
+     *   --> Salida:
+     *       --> Ambos devuelven el mismo tramo, tanto para las claves del almacén como para las de la capa
+     */
+    @DisplayName("JUnit test for ColumnarPriceEngine segmentAt against timeline engine")
+    @Test
+    public void givenExamCatalog_whenSegmentAt_thenSameAsTimeline() {
+        // given - precondition or setup
+        PRICES refreshed = price(catalog.get(0).getBrand(), 5, LocalDateTime.of(2020, Month.JUNE, 14, 12, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 20, 0, 0, 0), 5, 0, 12.00);
+        refreshed.setProductId(35456);
+        ColumnarPriceEngine engine = new ColumnarPriceEngine();
+        engine.load(catalog);
+        engine.refresh(new PriceKey(1, 35456), List.of(refreshed));
+        TimelinePriceEngine timeline = new TimelinePriceEngine();
+        timeline.load(catalog);
+        timeline.refresh(new PriceKey(1, 35456), List.of(refreshed));
+        List<LocalDateTime> fechas = List.of(
+                LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 14, 21, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 15, 10, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 16, 21, 0, 0),
+                LocalDateTime.of(2020, Month.JUNE, 13, 23, 59, 59));
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        for (LocalDateTime fecha : fechas) {
+            for (long productId : List.of(35455L, 35456L)) {
+                Assertions.assertThat(engine.segmentAt(fecha, productId, 1))
+                        .as("segment of product %d at %s", productId, fecha)
+                        .isEqualTo(timeline.segmentAt(fecha, productId, 1));
+            }
+        }
+        Assertions.assertThat(engine.segmentAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0), 35455, 1)
+                .map(PriceSegment::until)).contains(LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0).plusNanos(1));
+    }
+
+    /*
+     * Test givenColumnarEngine_whenRefreshAndCompact_thenResolvesNewPrices
+     *   --> Entrada: motor "columnar" cargado con el catálogo del examen y una escritura de la clave (1, 35455)
+     *   --> Proceso:
+     *       --> Se refresca la clave, se resuelve, se compacta y se vuelve a resolver
+     *   --> Salida:
+     *       --> Antes y después de compactar se resuelve el precio nuevo y tras compactar no quedan claves pendientes
+     */
+    @DisplayName("JUnit test for ColumnarPriceEngine overlay and compaction")
+    @Test
+    public void givenColumnarEngine_whenRefreshAndCompact_thenResolvesNewPrices() {
+        // given - precondition or setup
+        ColumnarPriceEngine engine = new ColumnarPriceEngine();
+        engine.load(catalog);
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0);
+        PRICES updated = catalog.get(0);
+        updated.setPrice(40.00);
+
+        // when - action or the behavior that we are going test
+        engine.refresh(new PriceKey(1, 35455), List.of(updated));
+        Double beforeCompaction = engine.resolve(fecha, 35455, 1).map(PriceEntry::price).orElse(null);
+        engine.compact();
+        Double afterCompaction = engine.resolve(fecha, 35455, 1).map(PriceEntry::price).orElse(null);
+
+        // then - verify the output
+        Assertions.assertThat(beforeCompaction).isEqualTo(40.00);
+        Assertions.assertThat(afterCompaction).isEqualTo(40.00);
+        Assertions.assertThat(engine.overlaySize()).isEqualTo(0);
+        Assertions.assertThat(engine.store().rows()).isEqualTo(1);
+        Assertions.assertThat(engine.resolve(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0), 35455, 1)
+                .map(PriceEntry::priceId)).contains(1L);
+    }
+
+    /*
+     * Test givenOverlayOverThreshold_whenRefresh_thenCompactInBackground
+     *   --> Entrada: motor "columnar" cargado con el catálogo del examen y escrituras de COMPACTION_THRESHOLD + 1 claves
+     *   --> Proceso:
+     *       --> Se refrescan las claves; la última supera el umbral y encola la compactación en segundo plano
+     *   --> Salida:
+     *       --> Las claves nuevas se resuelven en todo momento y la capa se vacía cuando termina la compactación
+     */
+    @DisplayName("JUnit test for ColumnarPriceEngine background compaction")
+    @Test
+    public void givenOverlayOverThreshold_whenRefresh_thenCompactInBackground() throws InterruptedException {
+        // given - precondition or setup
+        ColumnarPriceEngine engine = new ColumnarPriceEngine();
+        engine.load(catalog);
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0);
+        BRAND brandOne = catalog.get(0).getBrand();
+
+        // when - action or the behavior that we are going test
+        for (int i = 1; i <= ColumnarPriceEngine.COMPACTION_THRESHOLD + 1; i++) {
+            PRICES price = price(brandOne, 100 + i, LocalDateTime.of(2020, Month.JANUARY, 1, 0, 0, 0),
+                    LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 1, 0, 10.00);
+            price.setProductId(50_000 + i);
+            engine.refresh(new PriceKey(1, 50_000 + i), List.of(price));
+        }
+        Long duringCompaction = engine.resolve(fecha, 50_001, 1).map(PriceEntry::priceId).orElse(null);
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (engine.overlaySize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // then - verify the output
+        Assertions.assertThat(duringCompaction).isEqualTo(101L);
+        Assertions.assertThat(engine.overlaySize()).isEqualTo(0);
+        Assertions.assertThat(engine.store().rows()).isEqualTo(catalog.size() + ColumnarPriceEngine.COMPACTION_THRESHOLD + 1);
+        Assertions.assertThat(engine.resolve(fecha, 50_000 + ColumnarPriceEngine.COMPACTION_THRESHOLD + 1, 1)
+                .map(PriceEntry::priceId)).contains(101L + ColumnarPriceEngine.COMPACTION_THRESHOLD);
+    }
+
+    /*
+     * Test givenSnapshotFile_whenEngineStarts_thenResolvesBeforeDatabaseLoad
+     *   --> Entrada: snapshot escrito por un motor "columnar" cargado con el catálogo del examen
+     *   --> Proceso:
+     *       --> Un motor nuevo proyecta el snapshot al arrancar y después recibe la carga de la base de datos
+     *   --> Salida:
+     *       --> El motor está listo y resuelve desde el fichero antes de la carga; la carga no cambia el contenido
+     */
+    @DisplayName("JUnit test for memory-mapped snapshot of ColumnarPriceEngine")
+    @Test
+    public void givenSnapshotFile_whenEngineStarts_thenResolvesBeforeDatabaseLoad(@TempDir Path dir) throws Exception {
+        // given - precondition or setup
+        Path file = dir.resolve("catalog.prc");
+        new ColumnarPriceEngine(file.toString()).load(catalog);
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 15, 10, 0, 0);
+
+        // when - action or the behavior that we are going test
+        ColumnarPriceEngine engine = new ColumnarPriceEngine(file.toString());
+        engine.mapSnapshot();
+        boolean readyBeforeLoad = engine.isReady();
+        Integer priceListBeforeLoad = engine.resolve(fecha, 35455, 1).map(PriceEntry::priceList).orElse(null);
+        ColumnarPriceStore mapped = engine.store();
+        engine.load(catalog);
+
+        // then - verify the output
+        Assertions.assertThat(readyBeforeLoad).isTrue();
+        Assertions.assertThat(mapped.isMapped()).isTrue();
+        Assertions.assertThat(priceListBeforeLoad).isEqualTo(3);
+        Assertions.assertThat(mapped.hasSameContent(engine.store())).isTrue();
+        Assertions.assertThat(ColumnarPriceStore.map(file).hasSameContent(mapped)).isTrue();
+
+        Files.write(file, new byte[]{1, 2, 3});
+        Assertions.assertThatThrownBy(() -> ColumnarPriceStore.map(file)).isInstanceOf(IllegalArgumentException.class);
+        ColumnarPriceEngine corrupted = new ColumnarPriceEngine(file.toString());
+        corrupted.mapSnapshot();
+        Assertions.assertThat(corrupted.isReady()).isFalse();
+    }
+
+    private PRICES price(BRAND brand, long priceId, LocalDateTime start, LocalDateTime end, int priceList, int priority, double price) {
+        return PRICES.builder()
+                .priceId(priceId)
+                .brand(brand)
+                .startDate(start)
+                .endDate(end)
+                .priceList(priceList)
+                .productId(35455)
+                .priority(priority)
+                .price(price)
+                .curr("EUR").build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Clase IntervalTreePriceEngineTests para comprobar que IntervalTreePriceEngine resuelve los mismos precios que
+ * la consulta a la base de datos, usando los datos del examen (data.sql) sin levantar el contexto de Spring.
+ */
+public class IntervalTreePriceEngineTests {
+
+    private IntervalTreePriceEngine engine;
+
+    private BRAND brandOne;
+
+    /*
+        Ejecución previa a cada tests: se carga en el motor el catálogo del examen para la brand 1 y el producto 35455
+     */
+    @BeforeEach
+    public void setup() {
+        brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        engine = new IntervalTreePriceEngine();
+        engine.load(List.of(
+                price(1, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 1, 0, 35.50),
+                price(2, LocalDateTime.of(2020, Month.JUNE, 14, 15, 0, 0), LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0), 2, 1, 25.45),
+                price(3, LocalDateTime.of(2020, Month.JUNE, 15, 0, 0, 0), LocalDateTime.of(2020, Month.JUNE, 15, 11, 0, 0), 3, 1, 30.50),
+                price(4, LocalDateTime.of(2020, Month.JUNE, 15, 16, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 4, 1, 38.95)));
+    }
+
+    // Tests 1 a 5 del examen contra el motor en memoria
+    @DisplayName("JUnit test for resolve exam scenarios with IntervalTreePriceEngine")
+    @Test
+    public void givenExamCatalog_whenResolve_thenReturnHighestPriorityPriceList() {
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        Assertions.assertThat(engine.isReady()).isTrue();
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0))).contains(1);
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0))).contains(2);
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 21, 0, 0))).contains(1);
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 15, 10, 0, 0))).contains(3);
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 16, 21, 0, 0))).contains(4);
+    }
+
+    // Los extremos de la vigencia se incluyen, igual que en el BETWEEN de la consulta
+    @DisplayName("JUnit test for resolve on interval boundaries")
+    @Test
+    public void givenBoundaryDates_whenResolve_thenBoundsAreInclusive() {
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 15, 0, 0))).contains(2);
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0))).contains(2);
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 1))).contains(1);
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 13, 23, 59, 59))).isEmpty();
+        Assertions.assertThat(engine.resolve(LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0), 1, 1)).isEmpty();
+    }
+
+    // El tramo de precio efectivo es el de la línea temporal de las filas de la clave
+    @DisplayName("JUnit test for segmentAt with IntervalTreePriceEngine")
+    @Test
+    public void givenExamCatalog_whenSegmentAt_thenReturnWinnerUntilNextTransition() {
+        // when - action or the behavior that we are going test
+        Optional<PriceSegment> segment = engine.segmentAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0), 35455, 1);
+
+        // then - verify the output
+        Assertions.assertThat(segment.map(s -> s.price().priceList())).contains(2);
+        Assertions.assertThat(segment.map(PriceSegment::from)).contains(LocalDateTime.of(2020, Month.JUNE, 14, 15, 0, 0));
+        Assertions.assertThat(segment.map(PriceSegment::until)).contains(LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0).plusNanos(1));
+        Assertions.assertThat(engine.segmentAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0), 1, 1)).isEmpty();
+    }
+
+    // Al refrescar una clave sólo cambian sus precios
+    @DisplayName("JUnit test for refresh a single key")
+    @Test
+    public void givenRefreshedKey_whenResolve_thenReturnNewPrices() {
+        // given - precondition or setup
+        PriceKey key = new PriceKey(1, 35455);
+        engine.refresh(key, List.of(
+                price(5, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 5, 0, 10.00)));
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0))).contains(5);
+
+        engine.refresh(key, List.of());
+        Assertions.assertThat(priceListAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0))).isEmpty();
+        Assertions.assertThat(engine.size()).isEqualTo(0);
+    }
+
+    private Optional<Integer> priceListAt(LocalDateTime date) {
+        return engine.resolve(date, 35455, 1).map(PriceEntry::priceList);
+    }
+
+    private PRICES price(long priceId, LocalDateTime start, LocalDateTime end, int priceList, int priority, double price) {
+        return PRICES.builder()
+                .priceId(priceId)
+                .brand(brandOne)
+                .startDate(start)
+                .endDate(end)
+                .priceList(priceList)
+                .productId(35455)
+                .priority(priority)
+                .price(price)
+                .curr("EUR").build();
+    }
+}
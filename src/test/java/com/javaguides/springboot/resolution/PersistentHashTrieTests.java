@@ -0,0 +1,93 @@
+package com.javaguides.springboot.resolution;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * Clase PersistentHashTrieTests para comprobar que PersistentHashTrie se comporta como un Map inmutable
+ * y que las versiones anteriores no cambian al añadir o quitar claves.
+ */
+public class PersistentHashTrieTests {
+
+    /*
+     * Clave con hash fijo para forzar colisiones completas de hash.
+     */
+    private record CollidingKey(int id) {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    /*
+     * Test givenRandomOperations_whenCompareWithHashMap_thenSameContent
+     *   --> Entrada: secuencia aleatoria de altas, sustituciones y bajas
+     *   --> Proceso:
+     *       --> Se aplica la misma secuencia a un HashMap y al trie
+     *   --> Salida:
+     *       --> Mismo tamaño y mismos valores en ambos
+     */
+    @DisplayName("JUnit test for PersistentHashTrie against HashMap")
+    @Test
+    public void givenRandomOperations_whenCompareWithHashMap_thenSameContent() {
+        // given - precondition or setup
+        Random random = new Random(7);
+        Map<Long, Integer> expected = new HashMap<>();
+        PersistentHashTrie<Long, Integer> trie = PersistentHashTrie.empty();
+
+        // when - action or the behavior that we are going test
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                trie = trie.without(key);
+            } else {
+                expected.put(key, i);
+                trie = trie.with(key, i);
+            }
+        }
+
+        // then - verify the output
+        Assertions.assertThat(trie.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 5_000; key++) {
+            Assertions.assertThat(trie.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    /*
+     * Test givenTrie_whenWithAndWithout_thenPreviousVersionUnchanged
+     *   --> Entrada: mapa con claves que colisionan en el hash
+     *   --> Proceso:
+     *       --> Se crean versiones nuevas añadiendo y quitando claves
+     *   --> Salida:
+     *       --> La versión original conserva su contenido y las colisiones se resuelven por equals
+     */
+    @DisplayName("JUnit test for PersistentHashTrie persistence and hash collisions")
+    @Test
+    public void givenTrie_whenWithAndWithout_thenPreviousVersionUnchanged() {
+        // given - precondition or setup
+        PersistentHashTrie<CollidingKey, String> original = PersistentHashTrie.<CollidingKey, String>empty()
+                .with(new CollidingKey(1), "one")
+                .with(new CollidingKey(2), "two");
+
+        // when - action or the behavior that we are going test
+        PersistentHashTrie<CollidingKey, String> added = original.with(new CollidingKey(3), "three");
+        PersistentHashTrie<CollidingKey, String> removed = original.without(new CollidingKey(1));
+
+        // then - verify the output
+        Assertions.assertThat(original.size()).isEqualTo(2);
+        Assertions.assertThat(original.get(new CollidingKey(1))).isEqualTo("one");
+        Assertions.assertThat(original.get(new CollidingKey(3))).isNull();
+        Assertions.assertThat(added.size()).isEqualTo(3);
+        Assertions.assertThat(added.get(new CollidingKey(3))).isEqualTo("three");
+        Assertions.assertThat(removed.size()).isEqualTo(1);
+        Assertions.assertThat(removed.get(new CollidingKey(1))).isNull();
+        Assertions.assertThat(removed.get(new CollidingKey(2))).isEqualTo("two");
+        Assertions.assertThat(removed.without(new CollidingKey(9))).isSameAs(removed);
+    }
+}
@@ -0,0 +1,173 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.config.PriceWarmupHealthIndicator;
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import com.javaguides.springboot.repository.BrandRepository;
+import com.javaguides.springboot.repository.PriceRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+/*
+ * Clase PriceResolutionLoaderTests para comprobar que el calentamiento carga el motor con las particiones de todas
+ * las marcas sin perder las escrituras confirmadas durante la carga, y que la readiness no está UP hasta que termina
+ * o hasta que el motor está listo con su snapshot.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PriceResolutionLoaderTests {
+
+    @Mock
+    private PriceRepository priceRepository;
+
+    @Mock
+    private BrandRepository brandRepository;
+
+    @Mock
+    private ObjectProvider<PriceResolutionEngine> engineProvider;
+
+    @Mock
+    private ObjectProvider<ResolvedPriceCache> cacheProvider;
+
+    /*
+     * Test givenTwoBrands_whenWarmUp_thenEngineLoadedWithEveryPartition
+     *   --> Entrada: dos marcas con un precio cada una y el motor "timeline"
+     *   --> Proceso:
+     *       --> Se ejecuta el calentamiento con dos hilos
+     *   --> Salida:
+     *       --> El motor resuelve los precios de las dos marcas y la readiness pasa de OUT_OF_SERVICE a UP
+     */
+    @DisplayName("JUnit test for parallel warm-up by brand partition")
+    @Test
+    public void givenTwoBrands_whenWarmUp_thenEngineLoadedWithEveryPartition() {
+        // given - precondition or setup
+        TimelinePriceEngine engine = new TimelinePriceEngine();
+        given(engineProvider.getIfAvailable()).willReturn(engine);
+        given(cacheProvider.getIfAvailable()).willReturn(null);
+        given(brandRepository.findAllIds()).willReturn(Set.of(1L, 2L));
+        given(priceRepository.findByBrandId(1L)).willReturn(List.of(price(brand(1), 1, 35.50)));
+        given(priceRepository.findByBrandId(2L)).willReturn(List.of(price(brand(2), 2, 25.45)));
+        given(priceRepository.findKeysOrderByPriceCount(any(Pageable.class)))
+                .willReturn(List.of(new PriceKey(1, 35455), new PriceKey(2, 35455)));
+
+        PriceResolutionLoader loader = new PriceResolutionLoader(engineProvider, cacheProvider, priceRepository, brandRepository, 2, 10);
+        PriceWarmupHealthIndicator healthIndicator = new PriceWarmupHealthIndicator(loader);
+        Status before = healthIndicator.health().getStatus();
+
+        // when - action or the behavior that we are going test
+        loader.warmUp();
+
+        // then - verify the output
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0);
+        Assertions.assertThat(before).isEqualTo(Status.OUT_OF_SERVICE);
+        Assertions.assertThat(loader.status()).isEqualTo(PriceResolutionLoader.WarmupStatus.COMPLETED);
+        Assertions.assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        Assertions.assertThat(engine.resolve(fecha, 35455, 1).map(PriceEntry::price)).contains(35.50);
+        Assertions.assertThat(engine.resolve(fecha, 35455, 2).map(PriceEntry::price)).contains(25.45);
+    }
+
+    /*
+     * Test givenRefreshDuringLoad_whenWarmUp_thenRefreshKept
+     *   --> Entrada: motor "timeline" y una escritura de la clave (1, 35455) confirmada mientras se lee el catálogo
+     *   --> Proceso:
+     *       --> Se ejecuta el calentamiento; la partición de la marca 1 devuelve el precio anterior a la escritura
+     *   --> Salida:
+     *       --> El motor resuelve el precio de la escritura, no el del catálogo leído
+     */
+    @DisplayName("JUnit test for warm-up keeping prices refreshed during the load")
+    @Test
+    public void givenRefreshDuringLoad_whenWarmUp_thenRefreshKept() {
+        // given - precondition or setup
+        TimelinePriceEngine engine = new TimelinePriceEngine();
+        given(engineProvider.getIfAvailable()).willReturn(engine);
+        given(cacheProvider.getIfAvailable()).willReturn(null);
+        given(brandRepository.findAllIds()).willReturn(Set.of(1L));
+        given(priceRepository.findByBrandId(1L)).willAnswer(invocation -> {
+            engine.refresh(new PriceKey(1, 35455), List.of(price(brand(1), 1, 40.00)));
+            return List.of(price(brand(1), 1, 35.50));
+        });
+        given(priceRepository.findKeysOrderByPriceCount(any(Pageable.class))).willReturn(List.of());
+
+        PriceResolutionLoader loader = new PriceResolutionLoader(engineProvider, cacheProvider, priceRepository, brandRepository, 1, 10);
+
+        // when - action or the behavior that we are going test
+        loader.warmUp();
+
+        // then - verify the output
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0);
+        Assertions.assertThat(loader.status()).isEqualTo(PriceResolutionLoader.WarmupStatus.COMPLETED);
+        Assertions.assertThat(engine.resolve(fecha, 35455, 1).map(PriceEntry::price)).contains(40.00);
+    }
+
+    /*
+     * Test givenMappedSnapshot_whenWarmUpPending_thenReadinessUp
+     *   --> Entrada: motor "columnar" con un snapshot del catálogo en disco
+     *   --> Proceso:
+     *       --> Se proyecta el snapshot al arrancar el motor, antes del calentamiento
+     *   --> Salida:
+     *       --> La readiness está UP y el detalle indica que la carga desde la base de datos sigue pendiente
+     */
+    @DisplayName("JUnit test for readiness UP with a mapped columnar snapshot")
+    @Test
+    public void givenMappedSnapshot_whenWarmUpPending_thenReadinessUp(@TempDir Path dir) {
+        // given - precondition or setup
+        String snapshotFile = dir.resolve("catalog.prc").toString();
+        new ColumnarPriceEngine(snapshotFile).load(List.of(price(brand(1), 1, 35.50)));
+        ColumnarPriceEngine engine = new ColumnarPriceEngine(snapshotFile);
+        given(engineProvider.getIfAvailable()).willReturn(engine);
+
+        PriceResolutionLoader loader = new PriceResolutionLoader(engineProvider, cacheProvider, priceRepository, brandRepository, 1, 10);
+        PriceWarmupHealthIndicator healthIndicator = new PriceWarmupHealthIndicator(loader);
+        Status before = healthIndicator.health().getStatus();
+
+        // when - action or the behavior that we are going test
+        engine.mapSnapshot();
+        Health health = healthIndicator.health();
+
+        // then - verify the output
+        Assertions.assertThat(before).isEqualTo(Status.OUT_OF_SERVICE);
+        Assertions.assertThat(health.getStatus()).isEqualTo(Status.UP);
+        Assertions.assertThat(health.getDetails())
+                .containsEntry("status", PriceResolutionLoader.WarmupStatus.PENDING)
+                .containsEntry("engineReady", true);
+    }
+
+    private BRAND brand(long id) {
+        return BRAND.builder()
+                .id(id)
+                .name("Example " + id)
+                .description("Example description")
+                .build();
+    }
+
+    private PRICES price(BRAND brand, long priceId, double price) {
+        return PRICES.builder()
+                .priceId(priceId)
+                .brand(brand)
+                .startDate(LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0))
+                .endDate(LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59))
+                .priceList(1)
+                .productId(35455)
+                .priority(0)
+                .price(price)
+                .curr("EUR").build();
+    }
+}
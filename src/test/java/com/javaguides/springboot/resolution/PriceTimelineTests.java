@@ -0,0 +1,67 @@
+package com.javaguides.springboot.resolution;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+
+/*
+ * Clase PriceTimelineTests para comprobar que PriceTimeline aplana correctamente los solapamientos por prioridad
+ * en tramos disjuntos, usando los datos del examen (data.sql).
+ */
+public class PriceTimelineTests {
+
+    private PriceTimeline timeline;
+
+    @BeforeEach
+    public void setup() {
+        timeline = PriceTimeline.of(List.of(
+                entry(1, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 1, 0, 35.50),
+                entry(2, LocalDateTime.of(2020, Month.JUNE, 14, 15, 0, 0), LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0), 2, 1, 25.45),
+                entry(3, LocalDateTime.of(2020, Month.JUNE, 15, 0, 0, 0), LocalDateTime.of(2020, Month.JUNE, 15, 11, 0, 0), 3, 1, 30.50),
+                entry(4, LocalDateTime.of(2020, Month.JUNE, 15, 16, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 4, 1, 38.95)));
+    }
+
+    // Los cuatro precios del examen generan seis tramos disjuntos
+    @DisplayName("JUnit test for flatten exam catalog into disjoint segments")
+    @Test
+    public void givenExamCatalog_whenBuildTimeline_thenReturnDisjointSegments() {
+        // when - action or the behavior that we are going test
+        List<Integer> priceLists = timeline.segments().stream().map(segment -> segment.price().priceList()).toList();
+
+        // then - verify the output
+        Assertions.assertThat(priceLists).containsExactly(1, 2, 1, 3, 1, 4);
+        for (int i = 1; i < timeline.segments().size(); i++) {
+            Assertions.assertThat(timeline.segments().get(i).from()).isEqualTo(timeline.segments().get(i - 1).until());
+        }
+    }
+
+    // Tests 1 a 5 del examen contra la línea temporal
+    @DisplayName("JUnit test for resolve exam scenarios with PriceTimeline")
+    @Test
+    public void givenExamCatalog_whenPriceAt_thenReturnHighestPriorityPriceList() {
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0)).map(PriceEntry::priceList)).contains(1);
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0)).map(PriceEntry::priceList)).contains(2);
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.JUNE, 14, 21, 0, 0)).map(PriceEntry::priceList)).contains(1);
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.JUNE, 15, 10, 0, 0)).map(PriceEntry::priceList)).contains(3);
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.JUNE, 16, 21, 0, 0)).map(PriceEntry::priceList)).contains(4);
+    }
+
+    // Fuera de cualquier vigencia no hay precio, y los extremos de la vigencia se incluyen
+    @DisplayName("JUnit test for resolve outside and on the bounds of the timeline")
+    @Test
+    public void givenDatesOnBounds_whenPriceAt_thenBoundsAreInclusive() {
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.JUNE, 13, 23, 59, 59))).isEmpty();
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0)).map(PriceEntry::priceList)).contains(2);
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59)).map(PriceEntry::priceList)).contains(4);
+        Assertions.assertThat(timeline.priceAt(LocalDateTime.of(2021, Month.JANUARY, 1, 0, 0, 0))).isEmpty();
+    }
+
+    private PriceEntry entry(long priceId, LocalDateTime start, LocalDateTime end, int priceList, int priority, double price) {
+        return new PriceEntry(priceId, 1, 35455, start, end, priceList, priority, price, "EUR");
+    }
+}
@@ -0,0 +1,144 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import com.javaguides.springboot.repository.PriceRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/*
+ * Clase ResolvedPriceCacheTests para comprobar que ResolvedPriceCache resuelve desde memoria las consultas
+ * del mismo tramo y que la invalidación de una clave sólo afecta a sus entradas.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ResolvedPriceCacheTests {
+
+    @Mock
+    private PriceRepository priceRepository;
+
+    private ResolvedPriceCache cache;
+
+    private BRAND brandOne;
+
+    /*
+        Ejecución previa a cada tests: caché de tramos de una hora y precios del examen para la brand 1 y el producto 35455
+     */
+    @BeforeEach
+    public void setup() {
+        brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        cache = new ResolvedPriceCache(priceRepository, 100, Duration.ofMinutes(10), Duration.ofHours(1));
+        given(priceRepository.findEntriesByDateRangeProductIdBrand(any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), anyLong()))
+                .willReturn(List.of(
+                        price(1, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 1, 0),
+                        price(2, LocalDateTime.of(2020, Month.JUNE, 14, 15, 0, 0), LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0), 2, 1)));
+    }
+
+    /*
+     * Test givenSameBucket_whenResolve_thenLoadOnceAndHit
+     *   --> Entrada: dos consultas del mismo producto dentro del mismo tramo de una hora
+     *   --> Proceso:
+     *       --> La primera carga el tramo desde el repositorio, la segunda se resuelve en memoria
+     *   --> Salida:
+     *       --> Precio de mayor prioridad vigente en cada fecha, una sola carga, un acierto y un fallo
+     */
+    @DisplayName("JUnit test for resolve twice in the same time bucket")
+    @Test
+    public void givenSameBucket_whenResolve_thenLoadOnceAndHit() {
+        // when - action or the behavior that we are going test
+        Integer first = cache.resolve(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0), 35455, 1).map(PriceEntry::priceList).orElse(null);
+        Integer second = cache.resolve(LocalDateTime.of(2020, Month.JUNE, 14, 16, 45, 0), 35455, 1).map(PriceEntry::priceList).orElse(null);
+
+        // then - verify the output
+        Assertions.assertThat(first).isEqualTo(2);
+        Assertions.assertThat(second).isEqualTo(2);
+        Assertions.assertThat(cache.stats().hitCount()).isEqualTo(1);
+        Assertions.assertThat(cache.stats().missCount()).isEqualTo(1);
+        verify(priceRepository, times(1)).findEntriesByDateRangeProductIdBrand(any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), anyLong());
+    }
+
+    /*
+     * Test givenCachedKeys_whenInvalidate_thenOnlyThatKeyIsReloaded
+     *   --> Entrada: tramos en caché de dos productos y la invalidación de uno de ellos
+     *   --> Proceso:
+     *       --> Se invalida la clave (1, 35455) y se vuelven a consultar ambos productos
+     *   --> Salida:
+     *       --> Sólo se recarga desde el repositorio el producto invalidado
+     */
+    @DisplayName("JUnit test for invalidate exactly one (brandId, productId) key")
+    @Test
+    public void givenCachedKeys_whenInvalidate_thenOnlyThatKeyIsReloaded() {
+        // given - precondition or setup
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0);
+        cache.resolve(fecha, 35455, 1);
+        cache.resolve(fecha, 35456, 1);
+
+        // when - action or the behavior that we are going test
+        cache.invalidate(new PriceKey(1, 35455));
+        cache.resolve(fecha, 35455, 1);
+        cache.resolve(fecha, 35456, 1);
+
+        // then - verify the output
+        Assertions.assertThat(cache.stats().missCount()).isEqualTo(3);
+        Assertions.assertThat(cache.stats().hitCount()).isEqualTo(1);
+        Assertions.assertThat(cache.estimatedSize()).isEqualTo(2);
+    }
+
+    /*
+     * Test givenCachedBucket_whenSegmentAt_thenSegmentClippedToBucket
+     *   --> Entrada: consultas de tramo a las 16:00 (tarifa 2, de 15:00 a 18:30) y a las 10:00 (tarifa 1, todo el año)
+     *   --> Proceso:
+     *       --> Se construye la línea temporal con los precios del tramo de caché de cada fecha
+     *   --> Salida:
+     *       --> El tramo de precio se recorta a la hora del tramo de caché, que es lo único que se sabe de él
+     */
+    @DisplayName("JUnit test for segmentAt clipped to the cache time bucket")
+    @Test
+    public void givenCachedBucket_whenSegmentAt_thenSegmentClippedToBucket() {
+        // when - action or the behavior that we are going test
+        Optional<PriceSegment> afternoon = cache.segmentAt(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0), 35455, 1);
+        Optional<PriceSegment> morning = cache.segmentAt(LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0), 35455, 1);
+
+        // then - verify the output
+        Assertions.assertThat(afternoon.map(segment -> segment.price().priceList())).contains(2);
+        Assertions.assertThat(afternoon.map(PriceSegment::from)).contains(LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0));
+        Assertions.assertThat(afternoon.map(PriceSegment::until)).contains(LocalDateTime.of(2020, Month.JUNE, 14, 17, 0, 0));
+        Assertions.assertThat(morning.map(segment -> segment.price().priceList())).contains(1);
+        Assertions.assertThat(morning.map(PriceSegment::until)).contains(LocalDateTime.of(2020, Month.JUNE, 14, 11, 0, 0));
+    }
+
+    private PriceEntry price(long priceId, LocalDateTime start, LocalDateTime end, int priceList, int priority) {
+        return PriceEntry.of(PRICES.builder()
+                .priceId(priceId)
+                .brand(brandOne)
+                .startDate(start)
+                .endDate(end)
+                .priceList(priceList)
+                .productId(35455)
+                .priority(priority)
+                .price(35.50)
+                .curr("EUR").build());
+    }
+}
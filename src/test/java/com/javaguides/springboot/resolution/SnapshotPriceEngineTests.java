@@ -0,0 +1,138 @@
+package com.javaguides.springboot.resolution;
+
+import com.javaguides.springboot.model.BRAND;
+import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+
+/*
+ * Clase SnapshotPriceEngineTests para comprobar que SnapshotPriceEngine publica una versión nueva del catálogo
+ * en cada escritura sin modificar las versiones que ya se están leyendo.
+ */
+public class SnapshotPriceEngineTests {
+
+    private SnapshotPriceEngine engine;
+
+    private BRAND brandOne;
+
+    /*
+        Ejecución previa a cada tests: se carga en el motor el catálogo del examen para la brand 1 y el producto 35455
+     */
+    @BeforeEach
+    public void setup() {
+        brandOne = BRAND.builder()
+                .id(1)
+                .name("Example")
+                .description("Example description")
+                .build();
+
+        engine = new SnapshotPriceEngine();
+        engine.load(List.of(
+                price(1, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 1, 0),
+                price(2, LocalDateTime.of(2020, Month.JUNE, 14, 15, 0, 0), LocalDateTime.of(2020, Month.JUNE, 14, 18, 30, 0), 2, 1)));
+    }
+
+    /*
+     * Test givenPinnedSnapshot_whenRefresh_thenPinnedVersionUnchanged
+     *   --> Entrada: versión fijada por una petición y una escritura posterior de la misma clave
+     *   --> Proceso:
+     *       --> Se refresca la clave (1, 35455) mientras la versión anterior sigue fijada
+     *   --> Salida:
+     *       --> La versión fijada resuelve los precios antiguos y la nueva (versión + 1) los nuevos
+     */
+    @DisplayName("JUnit test for copy-on-write snapshots of SnapshotPriceEngine")
+    @Test
+    public void givenPinnedSnapshot_whenRefresh_thenPinnedVersionUnchanged() {
+        // given - precondition or setup
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0);
+        PriceCatalogSnapshot pinned = engine.pin();
+
+        // when - action or the behavior that we are going test
+        engine.refresh(new PriceKey(1, 35455), List.of(
+                price(5, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 5, 0)));
+        Integer pinnedPriceList = engine.resolve(fecha, 35455, 1).map(PriceEntry::priceList).orElse(null);
+        engine.unpin();
+        Integer currentPriceList = engine.resolve(fecha, 35455, 1).map(PriceEntry::priceList).orElse(null);
+
+        // then - verify the output
+        Assertions.assertThat(engine.isReady()).isTrue();
+        Assertions.assertThat(pinnedPriceList).isEqualTo(2);
+        Assertions.assertThat(currentPriceList).isEqualTo(5);
+        Assertions.assertThat(engine.snapshot().version()).isEqualTo(pinned.version() + 1);
+        Assertions.assertThat(pinned.resolve(fecha, 35455, 1).map(PriceEntry::priceList)).contains(2);
+    }
+
+    /*
+     * Test givenEmptyRefresh_whenResolve_thenKeyRemovedInNewVersionOnly
+     *   --> Entrada: refresco de la clave (1, 35455) sin filas
+     *   --> Proceso:
+     *       --> Se elimina la clave en una versión nueva
+     *   --> Salida:
+     *       --> La versión nueva no resuelve precio y la anterior sí
+     */
+    @DisplayName("JUnit test for remove a key in a new snapshot")
+    @Test
+    public void givenEmptyRefresh_whenResolve_thenKeyRemovedInNewVersionOnly() {
+        // given - precondition or setup
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 10, 0, 0);
+        PriceCatalogSnapshot before = engine.snapshot();
+
+        // when - action or the behavior that we are going test
+        engine.refresh(new PriceKey(1, 35455), List.of());
+
+        // then - verify the output
+        Assertions.assertThat(engine.resolve(fecha, 35455, 1)).isEmpty();
+        Assertions.assertThat(engine.snapshot().size()).isEqualTo(0);
+        Assertions.assertThat(before.resolve(fecha, 35455, 1).map(PriceEntry::priceList)).contains(1);
+    }
+
+    /*
+     * Test givenRefreshBeforeLoad_whenLoadOlderCatalog_thenRefreshKept
+     *   --> Entrada: escritura de la clave (1, 35455) y un catálogo leído antes de ella, con otra clave (1, 35456)
+     *   --> Proceso:
+     *       --> Se carga el catálogo después de la escritura
+     *   --> Salida:
+     *       --> La clave escrita conserva sus precios y la otra clave se carga del catálogo
+     */
+    @DisplayName("JUnit test for load keeping refreshed keys of SnapshotPriceEngine")
+    @Test
+    public void givenRefreshBeforeLoad_whenLoadOlderCatalog_thenRefreshKept() {
+        // given - precondition or setup
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14, 16, 0, 0);
+        engine.refresh(new PriceKey(1, 35455), List.of(
+                price(5, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 5, 0)));
+        PRICES other = price(6, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 6, 0);
+        other.setProductId(35456);
+        long version = engine.snapshot().version();
+
+        // when - action or the behavior that we are going test
+        engine.load(List.of(
+                price(1, LocalDateTime.of(2020, Month.JUNE, 14, 0, 0, 0), LocalDateTime.of(2020, Month.DECEMBER, 31, 23, 59, 59), 1, 0),
+                other));
+
+        // then - verify the output
+        Assertions.assertThat(engine.resolve(fecha, 35455, 1).map(PriceEntry::priceList)).contains(5);
+        Assertions.assertThat(engine.resolve(fecha, 35456, 1).map(PriceEntry::priceList)).contains(6);
+        Assertions.assertThat(engine.snapshot().version()).isEqualTo(version + 1);
+    }
+
+    private PRICES price(long priceId, LocalDateTime start, LocalDateTime end, int priceList, int priority) {
+        return PRICES.builder()
+                .priceId(priceId)
+                .brand(brandOne)
+                .startDate(start)
+                .endDate(end)
+                .priceList(priceList)
+                .productId(35455)
+                .priority(priority)
+                .price(35.50)
+                .curr("EUR").build();
+    }
+}
@@ -1,10 +1,25 @@
 package com.javaguides.springboot.service;
 
+import com.javaguides.springboot.dto.BasketDto;
+import com.javaguides.springboot.dto.PriceImportFormat;
+import com.javaguides.springboot.dto.PriceImportReportDto;
+import com.javaguides.springboot.dto.PriceQueryDto;
+import com.javaguides.springboot.dto.PriceSegmentDto;
+import com.javaguides.springboot.dto.PricesExamDto;
+import com.javaguides.springboot.event.PriceChangeEvent;
+import com.javaguides.springboot.exception.CurrencyMismatchException;
 import com.javaguides.springboot.exception.ResourceNotFoundException;
 import com.javaguides.springboot.model.BRAND;
 import com.javaguides.springboot.model.PRICES;
+import com.javaguides.springboot.model.PriceKey;
 import com.javaguides.springboot.repository.BrandRepository;
+import com.javaguides.springboot.repository.PriceChangeRepository;
 import com.javaguides.springboot.repository.PriceRepository;
+import com.javaguides.springboot.resolution.PriceChangeListener;
+import com.javaguides.springboot.resolution.PriceEntry;
+import com.javaguides.springboot.resolution.PriceSegment;
+import com.javaguides.springboot.resolution.PriceSegmentBounds;
+import com.javaguides.springboot.resolution.TimelinePriceEngine;
 import com.javaguides.springboot.service.impl.PriceBrandServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,12 +31,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -36,6 +66,10 @@ public class PriceBrandServiceTests {
     private PriceRepository priceRepository;
     @Mock
     private BrandRepository brandRepository;
+    @Mock
+    private PriceChangeRepository priceChangeRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private PriceBrandServiceImpl priceBrandService;
@@ -295,4 +329,437 @@ public class PriceBrandServiceTests {
         verify(brandRepository, times(1)).deleteById(brandId);
         verify(priceRepository, times(1)).deleteById(priceId);
     }
+    /*
+     * Test givenPriceIdBrandId_whenDelete_thenPublishChangeEventsWithKeys
+     *   --> Entrada: Price Id y Brand Id a eliminar, con precios del producto 35455
+     *   --> Proceso:
+     *       --> Se simula con Mocks que se eliminan el precio y la marca en la base de datos
+     *   --> Salida:
+     *       --> Se publica un evento por cada borrado con las claves (brandId, productId) afectadas
+     */
+    // Junit test for change events published on delete PRICE and BRAND
+    @DisplayName("Junit test for change events published on delete PRICE and BRAND")
+    @Test
+    public void givenPriceIdBrandId_whenDelete_thenPublishChangeEventsWithKeys(){
+        // given - precondition or setup
+        priceOne.setPriceId(1);
+        PriceKey key = new PriceKey(1, 35455);
+        BDDMockito.given(priceRepository.findById(1L)).willReturn(Optional.of(priceOne));
+        BDDMockito.given(priceRepository.findProductIdsByBrandId(1L)).willReturn(List.of(35455L));
+
+        // when - action or the behavior that we are going test
+        priceBrandService.deletePrice(1L);
+        priceBrandService.deleteBrand(1L);
+
+        // then - verify the output
+        verify(eventPublisher, times(1)).publishEvent(new PriceChangeEvent.PriceDeleted(1L, key));
+        verify(eventPublisher, times(1)).publishEvent(new PriceChangeEvent.BrandDeleted(1L, Set.of(key)));
+    }
+    /*
+     * Test givenOverlappingPrices_whenFindByDateRequestIdProductIdBrand_thenReturnTopPriorityFromDatabase
+     *   --> Entrada: fecha 2020-06-14 16:00, producto 35455 y marca 1, sin motor en memoria ni caché
+     *   --> Proceso:
+     *       --> Se simula con Mocks que la consulta de una fila (ORDER BY priority DESC, límite 1) devuelve la tarifa 2
+     *   --> Salida:
+     *       --> Se devuelve la tarifa 2 sin leer el resto de precios vigentes, y un PRICES vacío si no hay ninguno
+     */
+    // Junit test for find the applicable price with the top-1 query
+    @DisplayName("Junit test for find the applicable price with the top-1 query")
+    @Test
+    public void givenOverlappingPrices_whenFindByDateRequestIdProductIdBrand_thenReturnTopPriorityFromDatabase(){
+        // given - precondition or setup
+        PRICES priceTwo = PRICES.builder()
+                .priceId(2)
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,15,0,0))
+                .endDate( LocalDateTime.of(2020, Month.JUNE, 14,18,30,0))
+                .priceList(2)
+                .productId(35455)
+                .priority(1)
+                .price(25.45)
+                .curr("EUR").build();
+        LocalDateTime fechaApli = LocalDateTime.of(2020, Month.JUNE, 14,16,0,0);
+        BDDMockito.given(priceRepository.findTopByDateRequestIdProductIdBrand(fechaApli, 35455L, 1L))
+                .willReturn(Optional.of(PriceEntry.of(priceTwo)));
+        BDDMockito.given(priceRepository.findTopByDateRequestIdProductIdBrand(fechaApli, 35455L, 2L))
+                .willReturn(Optional.empty());
+
+        // when - action or the behavior that we are going test
+        PRICES priceFound = priceBrandService.findByDateRequestIdProductIdBrand(fechaApli, 35455L, 1L);
+        PRICES noPrice = priceBrandService.findByDateRequestIdProductIdBrand(fechaApli, 35455L, 2L);
+
+        // then - verify the output
+        Assertions.assertThat(priceFound.getPriceId()).isEqualTo(2);
+        Assertions.assertThat(priceFound.getPriceList()).isEqualTo(2);
+        Assertions.assertThat(priceFound.getCurr()).isEqualTo("EUR");
+        Assertions.assertThat(priceFound.getBrand().getId()).isEqualTo(1);
+        Assertions.assertThat(noPrice.getPriceId()).isZero();
+        verify(priceRepository, never()).findByDateRequestIdProductIdBrand(any(LocalDateTime.class), anyLong(), anyLong());
+    }
+
+    /*
+     * Test givenOverlappingPrices_whenFindPriceSegmentAt_thenReturnWinnerValidUntilNextTransition
+     *   --> Entrada: fecha 2020-06-14 16:00, producto 35455 y marca 1
+     *   --> Proceso:
+     *       --> Se simula con Mocks que la consulta de una fila devuelve la tarifa 2 (15:00 a 18:30, más prioritaria) y
+     *           que ningún otro precio le gana dentro de su vigencia
+     *   --> Salida:
+     *       --> Gana la tarifa 2 y sigue siendo la aplicable hasta justo después de las 18:30
+     */
+    // Junit test for find the effective price segment of a date
+    @DisplayName("Junit test for find the effective price segment of a date")
+    @Test
+    public void givenOverlappingPrices_whenFindPriceSegmentAt_thenReturnWinnerValidUntilNextTransition(){
+        // given - precondition or setup
+        priceOne.setPriceId(1);
+        PRICES priceTwo = PRICES.builder()
+                .priceId(2)
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,15,0,0))
+                .endDate( LocalDateTime.of(2020, Month.JUNE, 14,18,30,0))
+                .priceList(2)
+                .productId(35455)
+                .priority(1)
+                .price(25.45)
+                .curr("EUR").build();
+        LocalDateTime fechaApli = LocalDateTime.of(2020, Month.JUNE, 14,16,0,0);
+        BDDMockito.given(priceRepository.findTopByDateRequestIdProductIdBrand(fechaApli, 35455L, 1L))
+                .willReturn(Optional.of(PriceEntry.of(priceTwo)));
+        BDDMockito.given(priceRepository.findSegmentBounds(fechaApli, 35455L, 1L, priceTwo.getStartDate(), priceTwo.getEndDate(), 1, 2L))
+                .willReturn(new PriceSegmentBounds(null, null));
+
+        // when - action or the behavior that we are going test
+        Optional<PriceSegment> segment = priceBrandService.findPriceSegmentAt(fechaApli, 35455L, 1L);
+
+        // then - verify the output
+        Assertions.assertThat(segment).isPresent();
+        Assertions.assertThat(segment.get().price().priceList()).isEqualTo(2);
+        Assertions.assertThat(segment.get().from()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14,15,0,0));
+        Assertions.assertThat(segment.get().until()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14,18,30,0).plusNanos(1));
+    }
+
+    /*
+     * Test givenLoadedEngine_whenFindPriceSegmentAt_thenUseEngineUnlessChangesPending
+     *   --> Entrada: fecha 2020-06-14 16:00, producto 35455, marca 1 y el motor "timeline" cargado con la tarifa 1
+     *   --> Proceso:
+     *       --> Se busca el tramo sin escrituras pendientes y después con una escritura confirmada aún no aplicada al motor
+     *   --> Salida:
+     *       --> Sin pendientes responde el motor sin consultar la base de datos; con pendientes, la base de datos
+     */
+    // Junit test for find the effective price segment with the resolution engine
+    @DisplayName("Junit test for find the effective price segment with the resolution engine")
+    @Test
+    public void givenLoadedEngine_whenFindPriceSegmentAt_thenUseEngineUnlessChangesPending(){
+        // given - precondition or setup
+        priceOne.setPriceId(1);
+        TimelinePriceEngine engine = new TimelinePriceEngine();
+        engine.load(List.of(priceOne));
+        PriceChangeListener priceChangeListener = Mockito.mock(PriceChangeListener.class);
+        ReflectionTestUtils.setField(priceBrandService, "priceResolutionEngine", engine);
+        ReflectionTestUtils.setField(priceBrandService, "priceChangeListener", priceChangeListener);
+        LocalDateTime fechaApli = LocalDateTime.of(2020, Month.JUNE, 14,16,0,0);
+        BDDMockito.given(priceChangeListener.hasPendingChanges()).willReturn(false, true);
+        PRICES updated = PRICES.builder()
+                .priceId(1)
+                .brand(brandOne)
+                .startDate(priceOne.getStartDate())
+                .endDate(priceOne.getEndDate())
+                .priceList(1)
+                .productId(35455)
+                .priority(0)
+                .price(40.00)
+                .curr("EUR").build();
+        BDDMockito.given(priceRepository.findTopByDateRequestIdProductIdBrand(fechaApli, 35455L, 1L))
+                .willReturn(Optional.of(PriceEntry.of(updated)));
+        BDDMockito.given(priceRepository.findSegmentBounds(fechaApli, 35455L, 1L, priceOne.getStartDate(), priceOne.getEndDate(), 0, 1L))
+                .willReturn(new PriceSegmentBounds(null, null));
+
+        // when - action or the behavior that we are going test
+        Optional<PriceSegment> fromEngine = priceBrandService.findPriceSegmentAt(fechaApli, 35455L, 1L);
+        BDDMockito.then(priceRepository).shouldHaveNoInteractions();
+        Optional<PriceSegment> fromDatabase = priceBrandService.findPriceSegmentAt(fechaApli, 35455L, 1L);
+
+        // then - verify the output
+        Assertions.assertThat(fromEngine.map(segment -> segment.price().price())).contains(priceOne.getPrice());
+        Assertions.assertThat(fromDatabase.map(segment -> segment.price().price())).contains(40.00);
+    }
+    /*
+     * Test givenPriceIdBrandId_whenDelete_thenRecordTombstonesWithNewCatalogVersion
+     *   --> Entrada: Price Id y Brand Id a eliminar
+     *   --> Proceso:
+     *       --> Se simula con Mocks que el borrado de la marca toma la versión 9 del catálogo
+     *   --> Salida:
+     *       --> El precio queda como lápida en una versión nueva y los precios de la marca en la versión 9
+     */
+    // Junit test for change log tombstones recorded on delete PRICE and BRAND
+    @DisplayName("Junit test for change log tombstones recorded on delete PRICE and BRAND")
+    @Test
+    public void givenPriceIdBrandId_whenDelete_thenRecordTombstonesWithNewCatalogVersion(){
+        // given - precondition or setup
+        priceOne.setPriceId(1);
+        BDDMockito.given(priceChangeRepository.nextCatalogVersion()).willReturn(9L);
+        BDDMockito.given(priceRepository.findById(1L)).willReturn(Optional.of(priceOne));
+        BDDMockito.given(priceRepository.findProductIdsByBrandId(1L)).willReturn(List.of(35455L));
+
+        // when - action or the behavior that we are going test
+        priceBrandService.deletePrice(1L);
+        priceBrandService.deleteBrand(1L);
+
+        // then - verify the output
+        verify(priceChangeRepository, times(1)).recordChange(1L, true);
+        verify(priceChangeRepository, times(1)).markBrandDeleted(1L, 9L);
+    }
+    /*
+     * Test givenPriceQueries_whenFindByDateRequestIdProductIdBrandBatch_thenReturnPricesInQueryOrder
+     *   --> Entrada: Lista de consultas (fecha de aplicación, producto, marca)
+     *   --> Proceso:
+     *       --> Se simula con Mocks una única consulta agrupada que devuelve todos los precios candidatos
+     *   --> Salida:
+     *       --> Se devuelve el precio de mayor prioridad de cada consulta, en el mismo orden, y un PRICES vacío si no hay precio
+     */
+    // Junit test for find PRICES by date, product and brand in batch
+    @DisplayName("Junit test for find PRICES by date, product and brand in batch")
+    @Test
+    public void givenPriceQueries_whenFindByDateRequestIdProductIdBrandBatch_thenReturnPricesInQueryOrder(){
+        // given - precondition or setup
+        priceOne.setPriceId(1);
+        PRICES priceTwo = PRICES.builder()
+                .priceId(2)
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,15,0,0))
+                .endDate( LocalDateTime.of(2020, Month.JUNE, 14,18,30,0))
+                .priceList(2)
+                .productId(35455)
+                .priority(1)
+                .price(25.45)
+                .curr("EUR").build();
+
+        List<PriceQueryDto> queries = List.of(
+                new PriceQueryDto(LocalDateTime.of(2020, Month.JUNE, 14,16,0,0), 35455, 1),
+                new PriceQueryDto(LocalDateTime.of(2020, Month.JUNE, 14,10,0,0), 35455, 1),
+                new PriceQueryDto(LocalDateTime.of(2020, Month.JUNE, 14,10,0,0), 1, 1));
+
+        BDDMockito.given(priceRepository.findByDateRangeProductIdsBrandIds(
+                        BDDMockito.eq(LocalDateTime.of(2020, Month.JUNE, 14,10,0,0)),
+                        BDDMockito.eq(LocalDateTime.of(2020, Month.JUNE, 14,16,0,0)),
+                        anyCollection(), anyCollection()))
+                .willReturn(List.of(priceOne, priceTwo));
+
+        // when - action or the behavior that we are going test
+        List<PRICES> pricesFound = priceBrandService.findByDateRequestIdProductIdBrand(queries);
+
+        // then - verify the output
+        Assertions.assertThat(pricesFound.size()).isEqualTo(3);
+        Assertions.assertThat(pricesFound.get(0).getPriceList()).isEqualTo(2);
+        Assertions.assertThat(pricesFound.get(1).getPriceList()).isEqualTo(1);
+        Assertions.assertThat(pricesFound.get(2).getBrand()).isNull();
+        verify(priceRepository, times(1)).findByDateRangeProductIdsBrandIds(any(), any(), anyCollection(), anyCollection());
+    }
+    /*
+     * Test givenDistantQueryDates_whenFindByDateRequestIdProductIdBrandBatch_thenQueryEachDateWindow
+     *   --> Entrada: dos consultas del producto 35455 separadas un año
+     *   --> Proceso:
+     *       --> Se simula con Mocks una consulta por cada ventana de fechas, en lugar de una del año entero
+     *   --> Salida:
+     *       --> Cada consulta se resuelve con los precios de su ventana, en el orden de las consultas
+     */
+    // Junit test for find PRICES in batch with distant dates
+    @DisplayName("Junit test for find PRICES in batch with distant dates")
+    @Test
+    public void givenDistantQueryDates_whenFindByDateRequestIdProductIdBrandBatch_thenQueryEachDateWindow(){
+        // given - precondition or setup
+        priceOne.setPriceId(1);
+        PRICES priceNextYear = PRICES.builder()
+                .priceId(2)
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2021, Month.JUNE, 1,0,0,0))
+                .endDate( LocalDateTime.of(2021, Month.JUNE, 30,23,59,59))
+                .priceList(5)
+                .productId(35455)
+                .priority(0)
+                .price(40.00)
+                .curr("EUR").build();
+        LocalDateTime nextYear = LocalDateTime.of(2021, Month.JUNE, 14,10,0,0);
+        LocalDateTime thisYear = LocalDateTime.of(2020, Month.JUNE, 14,10,0,0);
+
+        List<PriceQueryDto> queries = List.of(
+                new PriceQueryDto(nextYear, 35455, 1),
+                new PriceQueryDto(thisYear, 35455, 1));
+
+        BDDMockito.given(priceRepository.findByDateRangeProductIdsBrandIds(
+                        BDDMockito.eq(thisYear), BDDMockito.eq(thisYear), anyCollection(), anyCollection()))
+                .willReturn(List.of(priceOne));
+        BDDMockito.given(priceRepository.findByDateRangeProductIdsBrandIds(
+                        BDDMockito.eq(nextYear), BDDMockito.eq(nextYear), anyCollection(), anyCollection()))
+                .willReturn(List.of(priceNextYear));
+
+        // when - action or the behavior that we are going test
+        List<PRICES> pricesFound = priceBrandService.findByDateRequestIdProductIdBrand(queries);
+
+        // then - verify the output
+        Assertions.assertThat(pricesFound).extracting(PRICES::getPriceList).containsExactly(5, 1);
+        verify(priceRepository, times(2)).findByDateRangeProductIdsBrandIds(any(), any(), anyCollection(), anyCollection());
+    }
+    /*
+     * Test givenOverlappingPrices_whenGetPriceTimeline_thenReturnSegmentsClippedToRange
+     *   --> Entrada: producto 35455 de la marca 1 y el rango del 14 de junio de 10:00 a 20:00
+     *   --> Proceso:
+     *       --> Se simula con Mocks la consulta de los precios que se solapan con el rango (tarifas 1 y 2)
+     *   --> Salida:
+     *       --> Tres tramos consecutivos: tarifa 1, tarifa 2 de 15:00 a 18:30 (incluido) y de nuevo tarifa 1 hasta las 20:00
+     */
+    // Junit test for get the price timeline of a product between two dates
+    @DisplayName("Junit test for get the price timeline of a product between two dates")
+    @Test
+    public void givenOverlappingPrices_whenGetPriceTimeline_thenReturnSegmentsClippedToRange(){
+        // given - precondition or setup
+        priceOne.setPriceId(1);
+        PRICES priceTwo = PRICES.builder()
+                .priceId(2)
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,15,0,0))
+                .endDate( LocalDateTime.of(2020, Month.JUNE, 14,18,30,0))
+                .priceList(2)
+                .productId(35455)
+                .priority(1)
+                .price(25.45)
+                .curr("EUR").build();
+        LocalDateTime desde = LocalDateTime.of(2020, Month.JUNE, 14,10,0,0);
+        LocalDateTime hasta = LocalDateTime.of(2020, Month.JUNE, 14,20,0,0);
+        BDDMockito.given(priceRepository.findEntriesByDateRangeProductIdBrand(desde, hasta, 35455L, 1L))
+                .willReturn(List.of(PriceEntry.of(priceOne), PriceEntry.of(priceTwo)));
+
+        // when - action or the behavior that we are going test
+        List<PriceSegmentDto> segments = priceBrandService.getPriceTimeline(35455, 1, desde, hasta);
+
+        // then - verify the output
+        Assertions.assertThat(segments).extracting(PriceSegmentDto::getPriceList).containsExactly(1, 2, 1);
+        Assertions.assertThat(segments.get(0).getFrom()).isEqualTo(desde);
+        Assertions.assertThat(segments.get(1).getFrom()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14,15,0,0));
+        Assertions.assertThat(segments.get(2).getFrom()).isEqualTo(LocalDateTime.of(2020, Month.JUNE, 14,18,30,0,1));
+        Assertions.assertThat(segments.get(2).getUntil()).isEqualTo(hasta.plusNanos(1));
+    }
+    /*
+     * Test givenBasket_whenPriceBasket_thenReturnItemsAndTotal
+     *   --> Entrada: cesta de la marca 1 el 14 de junio a las 16:00 con el producto 35455 dos veces y el producto 1
+     *   --> Proceso:
+     *       --> Se simula con Mocks una única consulta de los precios vigentes de los productos (tarifas 1 y 2 del 35455)
+     *   --> Salida:
+     *       --> Cada línea del 35455 con la tarifa 2 (mayor prioridad), el producto 1 sin precio y el total en EUR
+     */
+    // Junit test for price a basket of products of one brand
+    @DisplayName("Junit test for price a basket of products of one brand")
+    @Test
+    public void givenBasket_whenPriceBasket_thenReturnItemsAndTotal(){
+        // given - precondition or setup
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14,16,0,0);
+        BDDMockito.given(priceRepository.findByDateRangeProductIdsBrandIds(BDDMockito.eq(fecha), BDDMockito.eq(fecha), anyCollection(), BDDMockito.eq(List.of(1L))))
+                .willReturn(List.of(priceOne, basketPrice(2, 2, 1, 25.45, "EUR")));
+
+        // when - action or the behavior that we are going test
+        BasketDto basket = priceBrandService.priceBasket(1, fecha, List.of(35455L, 1L, 35455L));
+
+        // then - verify the output
+        Assertions.assertThat(basket.getItems()).extracting(PricesExamDto::getPriceList).containsExactly(2, 0, 2);
+        Assertions.assertThat(basket.getUnpricedProductIds()).containsExactly(1L);
+        Assertions.assertThat(basket.getTotal()).isEqualByComparingTo(new BigDecimal("50.90"));
+        Assertions.assertThat(basket.getCurr()).isEqualTo("EUR");
+        verify(priceRepository, times(1)).findByDateRangeProductIdsBrandIds(any(), any(), anyCollection(), anyCollection());
+    }
+
+    /*
+     * Test givenBasketWithTwoCurrencies_whenPriceBasket_thenThrowsCurrencyMismatch
+     *   --> Entrada: cesta con un producto en EUR y otro en USD
+     *   --> Proceso:
+     *       --> Se simula con Mocks la consulta de los precios vigentes
+     *   --> Salida:
+     *       --> Se lanza CurrencyMismatchException en lugar de sumar importes de monedas distintas
+     */
+    // Junit test for price a basket with prices in different currencies
+    @DisplayName("Junit test for price a basket with prices in different currencies")
+    @Test
+    public void givenBasketWithTwoCurrencies_whenPriceBasket_thenThrowsCurrencyMismatch(){
+        // given - precondition or setup
+        LocalDateTime fecha = LocalDateTime.of(2020, Month.JUNE, 14,16,0,0);
+        PRICES priceUsd = basketPrice(3, 3, 0, 10.00, "USD");
+        priceUsd.setProductId(1);
+        BDDMockito.given(priceRepository.findByDateRangeProductIdsBrandIds(BDDMockito.eq(fecha), BDDMockito.eq(fecha), anyCollection(), anyCollection()))
+                .willReturn(List.of(priceOne, priceUsd));
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(CurrencyMismatchException.class, ()->{
+            priceBrandService.priceBasket(1, fecha, List.of(35455L, 1L));
+        });
+
+        // then
+        verify(priceRepository, times(1)).findByDateRangeProductIdsBrandIds(any(), any(), anyCollection(), anyCollection());
+    }
+
+    private PRICES basketPrice(long priceId, int priceList, int priority, double price, String curr){
+        return PRICES.builder()
+                .priceId(priceId)
+                .brand(brandOne)
+                .startDate( LocalDateTime.of(2020, Month.JUNE, 14,15,0,0))
+                .endDate( LocalDateTime.of(2020, Month.JUNE, 14,18,30,0))
+                .priceList(priceList)
+                .productId(35455)
+                .priority(priority)
+                .price(price)
+                .curr(curr).build();
+    }
+
+    /*
+     * Test givenFailingSecondChunk_whenImportPrices_thenReturnPartialReport
+     *   --> Entrada: CSV de 3 precios importado en bloques de 2, cuyo segundo bloque falla al insertarse
+     *   --> Proceso:
+     *       --> Se simula con Mocks la transacción de cada bloque y las sentencias JDBC de la importación
+     *   --> Salida:
+     *       --> Se devuelve el informe parcial: 2 filas importadas, confirmado hasta la línea 3 y el fallo del bloque
+     *           de la línea 4, sin propagar el error
+     *       --> Se publica el evento PricesImported del primer bloque (confirmado) con sus claves
+     */
+    // Junit test for import prices with a failing chunk
+    @DisplayName("Junit test for import prices with a failing chunk")
+    @Test
+    public void givenFailingSecondChunk_whenImportPrices_thenReturnPartialReport(){
+        // given - precondition or setup
+        JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        ReflectionTestUtils.setField(priceBrandService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(priceBrandService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(priceBrandService, "importChunkSize", 2);
+
+        String csv = "brandId,startDate,endDate,priceList,productId,priority,price,curr\n"
+                + "1,2021-01-01T00:00:00,2021-12-31T23:59:59,1,50001,0,9.99,EUR\n"
+                + "1,2021-01-01T00:00:00,2021-12-31T23:59:59,1,50002,0,9.99,EUR\n"
+                + "1,2021-01-01T00:00:00,2021-12-31T23:59:59,1,50003,0,9.99,EUR\n";
+
+        BDDMockito.given(brandRepository.findAllIds()).willReturn(Set.of(1L));
+        BDDMockito.given(priceChangeRepository.nextCatalogVersion()).willReturn(2L);
+        ReflectionTestUtils.setField(priceBrandService, "importIdBlockSql", "select next value for prices_seq");
+        BDDMockito.given(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).willReturn(5L);
+        BDDMockito.willAnswer(invocation -> {
+                    Consumer<TransactionStatus> action = invocation.getArgument(0);
+                    action.accept(null);
+                    return null;
+                })
+                .willThrow(new DataIntegrityViolationException("Chunk failed"))
+                .given(transactionTemplate).executeWithoutResult(any());
+
+        // when - action or the behavior that we are going test
+        PriceImportReportDto report = priceBrandService.importPrices(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), PriceImportFormat.CSV);
+
+        // then - verify the output
+        Assertions.assertThat(report.getRowsRead()).isEqualTo(3);
+        Assertions.assertThat(report.getRowsImported()).isEqualTo(2);
+        Assertions.assertThat(report.isComplete()).isFalse();
+        Assertions.assertThat(report.getCommittedThroughLine()).isEqualTo(3);
+        Assertions.assertThat(report.getFailure().getFromLine()).isEqualTo(4);
+        Assertions.assertThat(report.getFailure().getToLine()).isEqualTo(4);
+        Assertions.assertThat(report.getFailure().getRows()).isEqualTo(1);
+        Assertions.assertThat(report.getFailure().getReason()).isEqualTo("Chunk failed");
+        verify(eventPublisher, times(1)).publishEvent(new PriceChangeEvent.PricesImported(2,
+                Set.of(new PriceKey(1, 50001), new PriceKey(1, 50002))));
+    }
 }